@@ -10,9 +10,6 @@ repositories {
 }
 
 dependencies {
-    // https://mvnrepository.com/artifact/org.jgrapht/jgrapht
-    implementation ("org.jgrapht:jgrapht-core:1.5.1")
-
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
 }
@@ -1,24 +1,33 @@
 package boggle;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import tree.LexicographicTree;
-
-import org.jgrapht.Graph;
-import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.graph.DefaultUndirectedGraph;
+import tree.Node;
 
 /**
- * class de representant un boggle
+ * class de representant un boggle. La grille est stockee a plat, ligne par
+ * ligne ; les voisins de chaque case sont precalcules dans une table d'indices
+ * et les cases deja utilisees par un chemin sont marquees dans un bitset.
  *
  * @author virgi
  *
  */
 public class Boggle {
-    private final Graph<Sommet, DefaultEdge> graph;
+    private final int size;
+    private final char[] grid;
+    private int[] firstNeighbour;
+    private int[] neighbours;
     private LexicographicTree arbre;
+    private volatile CompiledDictionary compiled;
+    private static final int TASKS_PER_THREAD = 4;
     private static final String DICTIONARY = "src/main/resources/mots/dictionnaire_FR_sans_accents.txt";
     /*
      * CONSTRUCTORS
@@ -37,18 +46,15 @@ public class Boggle {
         if (dict == null)
             throw new IllegalArgumentException("null pointer exception");
 
-        this.graph = new DefaultUndirectedGraph<>(DefaultEdge.class);
-        Sommet[][] grille = new Sommet[size][size];
+        this.size = size;
+        this.grid = new char[size * size];
+        arbre = dict;
 
         Random rand = new Random();
-        for (int i = 0; i < size * size; i++) {
-            int row = i / size;
-            int col = i % size;
-            char letter = (char) ('a' + rand.nextInt(26));
-            grille[row][col] = new Sommet(letter);
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = (char) ('a' + rand.nextInt(26));
         }
-        setVertexGraph(grille);
-        setEdgeGraph(grille);
+        setNeighbours();
 
     }
 
@@ -67,19 +73,12 @@ public class Boggle {
         if (size < 1 || letters.length() < size * size) {
             throw new IllegalArgumentException("Invalid grid size or letters");
         }
-        this.graph = new DefaultUndirectedGraph<>(DefaultEdge.class);
+        this.size = size;
+        this.grid = new char[size * size];
         arbre = dict;
 
-        Sommet[][] grille = new Sommet[size][size];
-
-        for (int i = 0; i < size * size; i++) {
-            int row = i / size;
-            int col = i % size;
-            grille[row][col] = new Sommet(letters.charAt(i));
-            ;
-        }
-        setVertexGraph(grille);
-        setEdgeGraph(grille);
+        letters.getChars(0, grid.length, grid, 0);
+        setNeighbours();
 
     }
 
@@ -93,12 +92,7 @@ public class Boggle {
      * @return a string of letters
      */
     public String letters() {
-        StringBuilder sb = new StringBuilder();
-        Set<Sommet> vertexSet = graph.vertexSet();
-        for (Sommet sommet : vertexSet) {
-            sb.append(sommet.getLetter());
-        }
-        return sb.toString();
+        return new String(grid);
     }
 
     /**
@@ -111,7 +105,7 @@ public class Boggle {
         if (givenWord == null)
             return false;
         String word = givenWord.toLowerCase();
-        if (word == null || word.isEmpty()) {
+        if (word.isEmpty()) {
             return false;
         }
 
@@ -119,10 +113,11 @@ public class Boggle {
             return false;
         }
 
-        for (Sommet sommet : graph.vertexSet()) {
-            if (sommet.getLetter() != word.charAt(0))
+        long[] visited = newVisited();
+        for (int cell = 0; cell < grid.length; cell++) {
+            if (grid[cell] != word.charAt(0))
                 continue;
-            if (searchWord(sommet, word.substring(1))) {
+            if (searchWord(cell, word, 1, visited)) {
                 return true;
             }
         }
@@ -136,10 +131,79 @@ public class Boggle {
      * @return the set of found words
      */
     public Set<String> solve() {
+        return solveCells(0, grid.length);
+    }
+
+    /**
+     * Searches for words in the Boggle grid without building a String per path.
+     * The dictionary is walked through a compiled copy (built on the first call,
+     * and again once the dictionary size has changed) in which words are
+     * numbered in alphabetical order; a found word is marked in a bitset indexed
+     * by its number, and the Strings are created once at the end. The set
+     * iterates over the words in alphabetical order.
+     * <p>
+     * Only the lowercase letters a-z are walked: a cell holding any other
+     * character (uppercase or accented letter, hyphen...) ends every path, and
+     * dictionary words containing such characters are never found, whereas
+     * solve() matches every character literally. On a grid of letters a-z both
+     * methods return the same words.
+     *
+     * @return the set of found words
+     */
+    public Set<String> solveSorted() {
+        CompiledDictionary dictionary = compiledDictionary();
+        int[] letterBits = new int[grid.length];
+        for (int cell = 0; cell < grid.length; cell++) {
+            letterBits[cell] = CompiledDictionary.letterBit(grid[cell]);
+        }
+        long[] motsTrouves = new long[(dictionary.wordCount() + 63) >>> 6];
+        long[] visited = newVisited();
+        for (int cell = 0; cell < grid.length; cell++) {
+            int node = dictionary.child(0, letterBits[cell]);
+            if (node != 0)
+                markWords(dictionary, letterBits, cell, node, 1, visited, motsTrouves);
+        }
+
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i < motsTrouves.length; i++) {
+            for (long bits = motsTrouves[i]; bits != 0; bits &= bits - 1) {
+                result.add(dictionary.word(i << 6 | Long.numberOfTrailingZeros(bits)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Searches for words in the Boggle grid using the common fork-join pool.
+     *
+     * @return the set of found words
+     * @see #solveInParallel(ForkJoinPool)
+     */
+    public Set<String> solveInParallel() {
+        return solveInParallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Searches for words in the Boggle grid on the supplied pool. The start cells
+     * are split into bands of rows, each explored by its own task with its own
+     * visited cells; the words found by the tasks are merged at the end. The
+     * result is the same as solve().
+     *
+     * @param pool Pool running the exploration of the bands
+     * @return the set of found words
+     */
+    public Set<String> solveInParallel(ForkJoinPool pool) {
+        int bands = Math.min(size, TASKS_PER_THREAD * pool.getParallelism());
+        List<ForkJoinTask<Set<String>>> tasks = new ArrayList<>();
+        for (int band = 0; band < bands; band++) {
+            int from = size * band / bands * size;
+            int to = size * (band + 1) / bands * size;
+            tasks.add(pool.submit(() -> solveCells(from, to)));
+        }
+
         Set<String> motsTrouves = new HashSet<>();
-        Set<Sommet> vertexSet = graph.vertexSet();
-        for (Sommet sommet : vertexSet) {
-            dfs(sommet, "" + sommet.getLetter(), motsTrouves);
+        for (ForkJoinTask<Set<String>> task : tasks) {
+            motsTrouves.addAll(task.join());
         }
         return motsTrouves;
     }
@@ -152,14 +216,9 @@ public class Boggle {
     @Override
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder();
-        Set<Sommet> vertexSet = graph.vertexSet();
-
-        int gridSize = (int) Math.sqrt(vertexSet.size());
-        int nbChar = 0;
-        for (Sommet sommet : vertexSet) {
-            stringBuilder.append(sommet.getLetter());
-            nbChar++;
-            if (nbChar % gridSize == 0) {
+        for (int cell = 0; cell < grid.length; cell++) {
+            stringBuilder.append(grid[cell]);
+            if ((cell + 1) % size == 0) {
                 stringBuilder.append("\n");
             } else
                 stringBuilder.append(' ');
@@ -172,94 +231,123 @@ public class Boggle {
      * PRIVATE METHODS
      */
 
-    private void setVertexGraph(Sommet[][] lettersTab) {
-        for (Sommet[] tab : lettersTab) {
-            for (Sommet sommet : tab) {
-                graph.addVertex(sommet);
-            }
-        }
+    private void setNeighbours() {
+        GridAdjacency adjacency = new GridAdjacency(size);
+        firstNeighbour = adjacency.first;
+        neighbours = adjacency.neighbours;
     }
 
-    private void setEdgeGraph(Sommet[][] lettersTab) {
-        int numRows = lettersTab.length;
-        int numCols = lettersTab[0].length;
-
-        for (int i = 0; i < numRows; i++) {
-            for (int j = 0; j < numCols; j++) {
-                setEdgeNeighbor(lettersTab, numRows, numCols, i, j);
-            }
+    /**
+     * cherche les mots commencant dans les cases from (incluse) a to (exclue) ;
+     * l'etat du parcours est propre a l'appel, qui peut donc tourner en parallele
+     * d'autres appels
+     */
+    private Set<String> solveCells(int from, int to) {
+        Set<String> motsTrouves = new HashSet<>();
+        long[] visited = newVisited();
+        char[] mot = new char[grid.length];
+        Node racine = arbre.getRoot();
+        for (int cell = from; cell < to; cell++) {
+            Node node = racine.getChild(grid[cell]);
+            if (node != null)
+                dfs(cell, node, mot, 0, visited, motsTrouves);
         }
+        return motsTrouves;
     }
 
-    private void setEdgeNeighbor(Sommet[][] lettersTab, int numRows, int numCols, int posI, int posJ) {
-        Sommet current = lettersTab[posI][posJ];
-
-        if (posI > 0 && posJ > 0) {
-            graph.addEdge(current, lettersTab[posI - 1][posJ - 1]); // voisin en haut à gauche
-        }
-        if (posI > 0) {
-            graph.addEdge(current, lettersTab[posI - 1][posJ]); // voisin en haut
-        }
-        if (posI > 0 && posJ < numCols - 1) {
-            graph.addEdge(current, lettersTab[posI - 1][posJ + 1]); // voisin en haut à droite
-        }
-        if (posJ > 0) {
-            graph.addEdge(current, lettersTab[posI][posJ - 1]); // voisin à gauche
-        }
-        if (posJ < numCols - 1) {
-            graph.addEdge(current, lettersTab[posI][posJ + 1]); // voisin à droite
+    /*
+     * le dictionnaire ne peut etre modifie que par ses propres methodes, qui
+     * ajoutent des mots sans jamais en retirer : sa taille change a chaque
+     * modification
+     */
+    private CompiledDictionary compiledDictionary() {
+        CompiledDictionary dictionary = this.compiled;
+        if (dictionary == null || dictionary.sourceSize() != arbre.size()) {
+            dictionary = new CompiledDictionary(arbre);
+            this.compiled = dictionary;
         }
-        if (posI < numRows - 1 && posJ > 0) {
-            graph.addEdge(current, lettersTab[posI + 1][posJ - 1]); // voisin en bas à gauche
+        return dictionary;
+    }
+
+    /**
+     * parcours de solveSorted : node est le noeud de la copie compilee pour le
+     * mot forme par le chemin, de longueur longueur. Un mot trouve par plusieurs
+     * chemins est marque plusieurs fois dans le meme bit
+     */
+    private void markWords(CompiledDictionary dictionary, int[] letterBits, int cell, int node, int longueur,
+            long[] visited, long[] motsTrouves) {
+        int id = dictionary.wordId(node);
+        if (longueur >= 3 && id >= 0) {
+            motsTrouves[id >>> 6] |= 1L << id;
         }
-        if (posI < numRows - 1) {
-            graph.addEdge(current, lettersTab[posI + 1][posJ]); // voisin en bas
+        if (!dictionary.hasChildren(node)) {
+            return;
         }
-        if (posI < numRows - 1 && posJ < numCols - 1) {
-            graph.addEdge(current, lettersTab[posI + 1][posJ + 1]); // voisin en bas à droite
+        flipVisited(visited, cell);
+        for (int n = firstNeighbour[cell]; n < firstNeighbour[cell + 1]; n++) {
+            int voisin = neighbours[n];
+            if (!isVisited(visited, voisin)) {
+                int child = dictionary.child(node, letterBits[voisin]);
+                if (child != 0)
+                    markWords(dictionary, letterBits, voisin, child, longueur + 1, visited, motsTrouves);
+            }
         }
+        flipVisited(visited, cell);
+    }
+
+    private long[] newVisited() {
+        return new long[(grid.length + 63) >>> 6];
+    }
+
+    private static boolean isVisited(long[] visited, int cell) {
+        return (visited[cell >>> 6] & (1L << cell)) != 0;
     }
 
-    private void dfs(Sommet sommetCourant, String motCourant, Set<String> motsTrouves) {
-        sommetCourant.setVisited(true);
-        if (arbre.containsWord(motCourant) && motCourant.length() >= 3) {
-            motsTrouves.add(motCourant);
+    private static void flipVisited(long[] visited, int cell) {
+        visited[cell >>> 6] ^= 1L << cell;
+    }
+
+    /**
+     * parcourt la grille a partir de la case en descendant dans l'arbre en meme
+     * temps : node est le noeud du mot forme par le chemin, qui n'est construit
+     * en String que s'il est dans le dictionnaire
+     */
+    private void dfs(int cell, Node node, char[] mot, int longueur, long[] visited, Set<String> motsTrouves) {
+        mot[longueur++] = grid[cell];
+        if (longueur >= 3 && node.isFinal()) {
+            motsTrouves.add(new String(mot, 0, longueur));
         }
-        if (arbre.isPrefix(motCourant)) {
-            Set<DefaultEdge> edges = graph.edgesOf(sommetCourant);
-            for (DefaultEdge edge : edges) {
-                Sommet sommetVoisin = graph.getEdgeTarget(edge);
-                if (sommetVoisin.equals(sommetCourant)) {
-                    sommetVoisin = graph.getEdgeSource(edge);
-                }
-                if (!sommetVoisin.isVisited()) {
-                    dfs(sommetVoisin, motCourant + sommetVoisin.getLetter(), motsTrouves);
-                }
+        if (node.childCount() == 0) {
+            return;
+        }
+        flipVisited(visited, cell);
+        for (int n = firstNeighbour[cell]; n < firstNeighbour[cell + 1]; n++) {
+            int voisin = neighbours[n];
+            if (!isVisited(visited, voisin)) {
+                Node child = node.getChild(grid[voisin]);
+                if (child != null)
+                    dfs(voisin, child, mot, longueur, visited, motsTrouves);
             }
         }
-        sommetCourant.setVisited(false);
+        flipVisited(visited, cell);
     }
 
-    private boolean searchWord(Sommet sommetCourant, String mot) {
-        if (mot.isEmpty()) {
+    private boolean searchWord(int cell, String mot, int position, long[] visited) {
+        if (position == mot.length()) {
             return true;
         }
-        sommetCourant.setVisited(true);
-        Set<DefaultEdge> edges = graph.edgesOf(sommetCourant);
-        for (DefaultEdge edge : edges) {
-            Sommet sommetVoisin = graph.getEdgeTarget(edge);
-            if (sommetVoisin.equals(sommetCourant)) {
-                sommetVoisin = graph.getEdgeSource(edge);
-            }
-            if (!sommetVoisin.isVisited() && sommetVoisin.getLetter() == mot.charAt(0)) {
-                if (searchWord(sommetVoisin, mot.substring(1))) {
-                    sommetCourant.setVisited(false);
+        flipVisited(visited, cell);
+        for (int n = firstNeighbour[cell]; n < firstNeighbour[cell + 1]; n++) {
+            int voisin = neighbours[n];
+            if (!isVisited(visited, voisin) && grid[voisin] == mot.charAt(position)) {
+                if (searchWord(voisin, mot, position + 1, visited)) {
+                    flipVisited(visited, cell);
                     return true;
                 }
             }
         }
 
-        sommetCourant.setVisited(false);
+        flipVisited(visited, cell);
         return false;
     }
 
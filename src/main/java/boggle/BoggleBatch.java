@@ -0,0 +1,251 @@
+package boggle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import tree.LexicographicTree;
+
+/**
+ * resolution d'un grand nombre de grilles de meme taille, pour compter ou
+ * noter les mots de chacune sans creer de String. Les grilles sont fournies a
+ * la suite dans un seul tableau d'octets (size x size lettres ASCII par grille,
+ * ligne par ligne, majuscules ou minuscules). Le dictionnaire est compile une
+ * fois pour toutes (voir CompiledDictionary) ; les insertions posterieures n'y
+ * sont pas reprises. Les grilles sont resolues sur un pool fourni (par defaut
+ * le pool commun) : aucun thread n'est cree par un appel. Chaque thread possede
+ * un contexte (grille, cases visitees, mots trouves) reutilise d'une grille a
+ * l'autre et d'un appel a l'autre ; un mot deja trouve dans la grille est
+ * reconnu a son numero, marque dans un bitset.
+ *
+ * @author virgi
+ *
+ */
+public final class BoggleBatch {
+    private static final int MIN_LENGTH = 3;
+    /*
+     * points d'un mot selon sa longueur (regle officielle), 11 a partir de 8
+     * lettres
+     */
+    private static final int[] POINTS = { 0, 0, 0, 1, 1, 2, 3, 5, 11 };
+
+    private final int size;
+    private final int cells;
+    private final int threads;
+    private final CompiledDictionary dictionary;
+    private final int[] firstNeighbour;
+    private final int[] neighbours;
+    private final ThreadLocal<Context> contexts = ThreadLocal.withInitial(Context::new);
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * constructeur utilisant un thread par processeur
+     *
+     * @param dict
+     * @param size taille des grilles
+     */
+    public BoggleBatch(LexicographicTree dict, int size) {
+        this(dict, size, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * constructeur recevant le dictionnaire partage, la taille des grilles et le
+     * nombre de threads travaillant a un appel, thread appelant compris
+     *
+     * @param dict
+     * @param size    taille des grilles
+     * @param threads
+     */
+    public BoggleBatch(LexicographicTree dict, int size, int threads) {
+        if (dict == null)
+            throw new IllegalArgumentException("null pointer exception");
+        if (size < 1)
+            throw new IllegalArgumentException("Size must be greater than 0.");
+        if (threads < 1)
+            throw new IllegalArgumentException("at least one thread is needed");
+        this.size = size;
+        this.cells = size * size;
+        this.threads = threads;
+        this.dictionary = new CompiledDictionary(dict);
+        GridAdjacency adjacency = new GridAdjacency(size);
+        this.firstNeighbour = adjacency.first;
+        this.neighbours = adjacency.neighbours;
+    }
+
+    /*
+     * PUBLIC METHODS
+     */
+
+    /**
+     * renvoie la taille des grilles
+     *
+     * @return
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * compte les mots distincts d'au moins 3 lettres de chaque grille, sur le
+     * pool commun
+     *
+     * @param grids grilles a la suite, size x size octets chacune
+     * @return le nombre de mots de chaque grille
+     * @throws InterruptedException
+     */
+    public int[] countWords(byte[] grids) throws InterruptedException {
+        return countWords(grids, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * compte les mots distincts d'au moins 3 lettres de chaque grille
+     *
+     * @param grids grilles a la suite, size x size octets chacune
+     * @param pool  execute les threads autres que l'appelant, n'est pas arrete
+     * @return le nombre de mots de chaque grille
+     * @throws InterruptedException
+     */
+    public int[] countWords(byte[] grids, ExecutorService pool) throws InterruptedException {
+        return solveAll(grids, false, pool);
+    }
+
+    /**
+     * calcule le score de chaque grille sur le pool commun
+     *
+     * @param grids grilles a la suite, size x size octets chacune
+     * @return le score de chaque grille
+     * @throws InterruptedException
+     * @see #score(byte[], ExecutorService)
+     */
+    public int[] score(byte[] grids) throws InterruptedException {
+        return score(grids, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * calcule le score de chaque grille : chaque mot distinct rapporte 1 point
+     * pour 3 ou 4 lettres, 2 pour 5, 3 pour 6, 5 pour 7 et 11 au-dela
+     *
+     * @param grids grilles a la suite, size x size octets chacune
+     * @param pool  execute les threads autres que l'appelant, n'est pas arrete
+     * @return le score de chaque grille
+     * @throws InterruptedException
+     */
+    public int[] score(byte[] grids, ExecutorService pool) throws InterruptedException {
+        return solveAll(grids, true, pool);
+    }
+
+    /*
+     * PRIVATE METHODS
+     */
+
+    /**
+     * repartit les grilles entre les threads, le thread appelant etant l'un d'eux
+     * ; chaque thread prend la grille suivante des qu'il a fini la precedente
+     */
+    private int[] solveAll(byte[] grids, boolean scored, ExecutorService pool) throws InterruptedException {
+        if (grids == null || grids.length % cells != 0)
+            throw new IllegalArgumentException("grids must hold size x size letters each");
+        int[] results = new int[grids.length / cells];
+        AtomicInteger next = new AtomicInteger();
+        Runnable worker = () -> {
+            Context context = contexts.get();
+            for (int grid = next.getAndIncrement(); grid < results.length; grid = next.getAndIncrement()) {
+                results[grid] = context.solve(grids, grid * cells, scored);
+            }
+        };
+
+        int helpers = Math.min(threads, results.length) - 1;
+        List<Future<?>> tasks = new ArrayList<>();
+        try {
+            for (int i = 0; i < helpers; i++) {
+                tasks.add(pool.submit(worker));
+            }
+            worker.run();
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            // un thread n'ayant pas encore commence ne trouvera plus de grille
+            next.set(results.length);
+        }
+        return results;
+    }
+
+    /**
+     * etat de resolution propre a un thread, reutilise pour toutes ses grilles,
+     * d'un appel a l'autre
+     */
+    private final class Context {
+        private final int[] grid = new int[cells];
+        private final long[] visited = new long[(cells + 63) >>> 6];
+        private final long[] found = new long[(dictionary.wordCount() + 63) >>> 6];
+        private int[] foundIds = new int[64];
+        private int foundCount;
+        private boolean scored;
+        private int total;
+
+        private int solve(byte[] grids, int offset, boolean scored) {
+            for (int cell = 0; cell < cells; cell++) {
+                byte letter = grids[offset + cell];
+                grid[cell] = CompiledDictionary.letterBit((char) (letter | 0x20));
+            }
+            this.scored = scored;
+            this.total = 0;
+            for (int cell = 0; cell < cells; cell++) {
+                int node = dictionary.child(0, grid[cell]);
+                if (node != 0)
+                    dfs(cell, node, 1);
+            }
+            // seuls les mots trouves sont effaces du bitset
+            for (int i = 0; i < foundCount; i++) {
+                found[foundIds[i] >>> 6] = 0;
+            }
+            foundCount = 0;
+            return total;
+        }
+
+        private void dfs(int cell, int node, int length) {
+            int id = dictionary.wordId(node);
+            if (length >= MIN_LENGTH && id >= 0) {
+                long bit = 1L << id;
+                if ((found[id >>> 6] & bit) == 0) {
+                    found[id >>> 6] |= bit;
+                    addFound(id);
+                    total += scored ? POINTS[Math.min(length, POINTS.length - 1)] : 1;
+                }
+            }
+            if (!dictionary.hasChildren(node)) {
+                return;
+            }
+            visited[cell >>> 6] ^= 1L << cell;
+            for (int n = firstNeighbour[cell]; n < firstNeighbour[cell + 1]; n++) {
+                int voisin = neighbours[n];
+                if ((visited[voisin >>> 6] & (1L << voisin)) == 0) {
+                    int child = dictionary.child(node, grid[voisin]);
+                    if (child != 0)
+                        dfs(voisin, child, length + 1);
+                }
+            }
+            visited[cell >>> 6] ^= 1L << cell;
+        }
+
+        private void addFound(int id) {
+            if (foundCount == foundIds.length) {
+                foundIds = Arrays.copyOf(foundIds, foundCount * 2);
+            }
+            foundIds[foundCount++] = id;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package boggle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import tree.LexicographicTree;
+import tree.Node;
+
+/**
+ * copie figee d'un arbre lexicographique pour le parcours d'une grille, limitee
+ * aux lettres a-z (seules lettres d'une grille). Les noeuds sont numerotes en
+ * largeur, la racine porte le numero 0 ; chaque noeud occupe deux entiers : les
+ * lettres de ses enfants (bit FINAL si le noeud termine un mot) puis le numero
+ * de son premier enfant, l'enfant de lettre c etant le premier enfant + le
+ * nombre de lettres inferieures a c. Les mots sont numerotes dans l'ordre
+ * alphabetique ; le numero appartient a la copie, l'arbre d'origine n'est pas
+ * modifie. Une fois construite la copie est immuable et peut etre partagee
+ * entre threads.
+ *
+ * @author virgi
+ *
+ */
+final class CompiledDictionary {
+    static final int FINAL = 1 << 26;
+    static final int LETTERS = FINAL - 1;
+    private static final int ALPHABET_SIZE = 26;
+
+    private final int[] trie;
+    private final int[] wordIds;
+    private final int[] parents;
+    private final byte[] letters;
+    private final int[] nodesById;
+    private final int sourceSize;
+
+    /**
+     * compile le dictionnaire, en le parcourant en largeur
+     *
+     * @param dict
+     */
+    CompiledDictionary(LexicographicTree dict) {
+        Node root = dict.getRoot();
+        sourceSize = dict.size();
+        List<Node> order = new ArrayList<>();
+        List<Integer> parentOf = new ArrayList<>();
+        order.add(root);
+        parentOf.add(-1);
+        int[] table = new int[16];
+        for (int i = 0; i < order.size(); i++) {
+            if (2 * i + 1 >= table.length) {
+                table = Arrays.copyOf(table, table.length * 2);
+            }
+            Node node = order.get(i);
+            int mask = node.isFinal() ? FINAL : 0;
+            table[2 * i + 1] = order.size();
+            for (int c = 0; c < node.childCount(); c++) {
+                Node child = node.childAt(c);
+                int letter = child.getLetter() - 'a';
+                if (letter >= 0 && letter < ALPHABET_SIZE) {
+                    mask |= 1 << letter;
+                    order.add(child);
+                    parentOf.add(i);
+                }
+            }
+            table[2 * i] = mask;
+        }
+        int nodeCount = order.size();
+        trie = Arrays.copyOf(table, 2 * nodeCount);
+        parents = new int[nodeCount];
+        letters = new byte[nodeCount];
+        wordIds = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            parents[i] = parentOf.get(i);
+            letters[i] = (byte) (order.get(i).getLetter() - 'a');
+        }
+
+        int[] byId = new int[nodeCount];
+        int wordCount = numberWords(0, byId, 0);
+        nodesById = Arrays.copyOf(byId, wordCount);
+    }
+
+    /**
+     * renvoie le nombre de mots du dictionnaire au moment de la compilation ;
+     * permet de savoir si la copie est perimee
+     *
+     * @return
+     */
+    int sourceSize() {
+        return sourceSize;
+    }
+
+    /**
+     * renvoie le bit d'une lettre a-z, 0 pour tout autre caractere
+     *
+     * @param character
+     * @return
+     */
+    static int letterBit(char character) {
+        int index = character - 'a';
+        return index >= 0 && index < ALPHABET_SIZE ? 1 << index : 0;
+    }
+
+    /**
+     * renvoie l'enfant du noeud pour la lettre (sous forme de bit), 0 (la racine,
+     * jamais un enfant) s'il n'existe pas
+     *
+     * @param node
+     * @param letterBit
+     * @return
+     */
+    int child(int node, int letterBit) {
+        int mask = trie[2 * node];
+        if ((mask & letterBit) == 0)
+            return 0;
+        return trie[2 * node + 1] + Integer.bitCount(mask & (letterBit - 1));
+    }
+
+    /**
+     * renvoie si le noeud a des enfants
+     *
+     * @param node
+     * @return
+     */
+    boolean hasChildren(int node) {
+        return (trie[2 * node] & LETTERS) != 0;
+    }
+
+    /**
+     * renvoie le numero du mot se terminant sur le noeud, -1 si le noeud n'est
+     * pas final
+     *
+     * @param node
+     * @return
+     */
+    int wordId(int node) {
+        return wordIds[node];
+    }
+
+    /**
+     * renvoie le nombre de mots de la copie
+     *
+     * @return
+     */
+    int wordCount() {
+        return nodesById.length;
+    }
+
+    /**
+     * reconstruit le mot de numero id en remontant de son noeud a la racine
+     *
+     * @param id
+     * @return
+     */
+    String word(int id) {
+        int length = 0;
+        for (int node = nodesById[id]; node != 0; node = parents[node]) {
+            length++;
+        }
+        char[] word = new char[length];
+        for (int node = nodesById[id]; node != 0; node = parents[node]) {
+            word[--length] = (char) ('a' + letters[node]);
+        }
+        return new String(word);
+    }
+
+    /**
+     * numerote les mots en profondeur, les enfants etant ranges par ordre de
+     * lettre ; renvoie le numero suivant
+     */
+    private int numberWords(int node, int[] byId, int next) {
+        int mask = trie[2 * node];
+        if ((mask & FINAL) != 0) {
+            wordIds[node] = next;
+            byId[next++] = node;
+        } else {
+            wordIds[node] = -1;
+        }
+        int children = Integer.bitCount(mask & LETTERS);
+        for (int c = 0; c < children; c++) {
+            next = numberWords(trie[2 * node + 1] + c, byId, next);
+        }
+        return next;
+    }
+}
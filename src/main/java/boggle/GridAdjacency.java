@@ -0,0 +1,40 @@
+package boggle;
+
+import java.util.Arrays;
+
+/**
+ * voisins de chaque case d'une grille carree rangee a plat, ligne par ligne :
+ * ceux de la case i sont neighbours[first[i]] a neighbours[first[i + 1] - 1]
+ *
+ * @author virgi
+ *
+ */
+final class GridAdjacency {
+    final int[] first;
+    final int[] neighbours;
+
+    /**
+     * precalcule les voisins (jusqu'a 8) de chaque case d'une grille size x size
+     *
+     * @param size
+     */
+    GridAdjacency(int size) {
+        int cells = size * size;
+        first = new int[cells + 1];
+        int[] table = new int[cells * 8];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                first[row * size + col] = count;
+                for (int i = Math.max(row - 1, 0); i <= Math.min(row + 1, size - 1); i++) {
+                    for (int j = Math.max(col - 1, 0); j <= Math.min(col + 1, size - 1); j++) {
+                        if (i != row || j != col)
+                            table[count++] = i * size + j;
+                    }
+                }
+            }
+        }
+        first[cells] = count;
+        neighbours = Arrays.copyOf(table, count);
+    }
+}
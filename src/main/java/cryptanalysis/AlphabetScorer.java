@@ -0,0 +1,172 @@
+package cryptanalysis;
+
+import java.nio.CharBuffer;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import tree.Lexicon;
+
+/**
+ * calcule incrementalement le score d'un alphabet de dechiffrement, c'est a
+ * dire le nombre de mots chiffres qui se dechiffrent en un mot du dictionnaire.
+ * Un index inverse associe a chaque lettre chiffree les mots qui la contiennent :
+ * quand un alphabet candidat ne differe de l'alphabet courant que par quelques
+ * lettres, seuls les mots contenant ces lettres sont reevalues.
+ * @author virgi
+ *
+ */
+final class AlphabetScorer {
+	private static final int ALPHABET_SIZE = 26;
+
+	private final Lexicon dict;
+	private final char[][] words;
+	private final int[][] wordsByLetter;
+	private final boolean[] matched;
+	private final char[] current = new char[ALPHABET_SIZE];
+	private int score;
+
+	private final char[] decoded;
+	private final CharBuffer decodedView;
+	private final int[] seen;
+	private int generation;
+
+	/**
+	 * constructeur recevant les mots chiffres (lettres A-Z, les autres caracteres
+	 * sont ignores comme dans applySubstitution) et le dictionnaire
+	 * @param encodedWords
+	 * @param dict
+	 */
+	AlphabetScorer(List<String> encodedWords, Lexicon dict) {
+		this.dict = dict;
+		this.words = new char[encodedWords.size()][];
+		this.matched = new boolean[encodedWords.size()];
+		this.seen = new int[encodedWords.size()];
+
+		int[] letterCounts = new int[ALPHABET_SIZE];
+		int maxLength = 0;
+		for (int w = 0; w < words.length; w++) {
+			words[w] = encodedWords.get(w).toCharArray();
+			maxLength = Math.max(maxLength, words[w].length);
+			boolean[] present = lettersOf(words[w]);
+			for (int letter = 0; letter < ALPHABET_SIZE; letter++) {
+				if (present[letter])
+					letterCounts[letter]++;
+			}
+		}
+		this.wordsByLetter = new int[ALPHABET_SIZE][];
+		for (int letter = 0; letter < ALPHABET_SIZE; letter++) {
+			wordsByLetter[letter] = new int[letterCounts[letter]];
+			letterCounts[letter] = 0;
+		}
+		for (int w = 0; w < words.length; w++) {
+			boolean[] present = lettersOf(words[w]);
+			for (int letter = 0; letter < ALPHABET_SIZE; letter++) {
+				if (present[letter])
+					wordsByLetter[letter][letterCounts[letter]++] = w;
+			}
+		}
+		this.decoded = new char[maxLength];
+		this.decodedView = CharBuffer.wrap(decoded);
+	}
+
+	/**
+	 * evalue tous les mots avec l'alphabet fourni, qui devient l'alphabet courant
+	 * @param alphabet alphabet de dechiffrement en majuscules
+	 * @param onMatch  recoit l'indice de chaque mot reconnu
+	 * @return le score de l'alphabet
+	 */
+	int reset(String alphabet, IntConsumer onMatch) {
+		alphabet.getChars(0, ALPHABET_SIZE, current, 0);
+		score = 0;
+		for (int w = 0; w < words.length; w++) {
+			matched[w] = matches(w, current);
+			if (matched[w]) {
+				score++;
+				onMatch.accept(w);
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * renvoie le score d'un alphabet candidat en ne reevaluant que les mots
+	 * contenant une lettre dont le dechiffrement differe de l'alphabet courant
+	 * @param alphabet alphabet de dechiffrement en majuscules
+	 * @param onMatch  recoit l'indice de chaque mot reevalue et reconnu
+	 * @return le score de l'alphabet candidat
+	 */
+	int score(String alphabet, IntConsumer onMatch) {
+		return evaluate(alphabet, onMatch, false);
+	}
+
+	/**
+	 * remplace l'alphabet courant par l'alphabet fourni
+	 * @param alphabet alphabet de dechiffrement en majuscules
+	 * @return le score du nouvel alphabet courant
+	 */
+	int accept(String alphabet) {
+		score = evaluate(alphabet, w -> {
+		}, true);
+		alphabet.getChars(0, ALPHABET_SIZE, current, 0);
+		return score;
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	private int evaluate(String alphabet, IntConsumer onMatch, boolean commit) {
+		generation++;
+		int candidateScore = score;
+		for (int letter = 0; letter < ALPHABET_SIZE; letter++) {
+			if (alphabet.charAt(letter) == current[letter])
+				continue;
+			for (int w : wordsByLetter[letter]) {
+				if (seen[w] == generation)
+					continue;
+				seen[w] = generation;
+				boolean match = matches(w, alphabet);
+				if (match)
+					onMatch.accept(w);
+				if (match != matched[w]) {
+					candidateScore += match ? 1 : -1;
+					if (commit)
+						matched[w] = match;
+				}
+			}
+		}
+		return candidateScore;
+	}
+
+	private boolean matches(int w, CharSequence alphabet) {
+		int length = decode(words[w], alphabet);
+		return length > 0 && dict.containsWord(decodedView, 0, length);
+	}
+
+	private boolean matches(int w, char[] alphabet) {
+		return matches(w, CharBuffer.wrap(alphabet));
+	}
+
+	/**
+	 * dechiffre le mot en minuscules dans le tampon, renvoie sa longueur
+	 */
+	private int decode(char[] word, CharSequence alphabet) {
+		int length = 0;
+		for (char character : word) {
+			int letter = character - 'A';
+			if (letter >= 0 && letter < ALPHABET_SIZE)
+				decoded[length++] = Character.toLowerCase(alphabet.charAt(letter));
+		}
+		return length;
+	}
+
+	private static boolean[] lettersOf(char[] word) {
+		boolean[] present = new boolean[ALPHABET_SIZE];
+		for (char character : word) {
+			int letter = character - 'A';
+			if (letter >= 0 && letter < ALPHABET_SIZE)
+				present[letter] = true;
+		}
+		return present;
+	}
+}
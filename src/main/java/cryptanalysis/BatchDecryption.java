@@ -0,0 +1,328 @@
+package cryptanalysis;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+import tree.LexicographicTree;
+import tree.Lexicon;
+
+/**
+ * dechiffrement d'un grand nombre de cryptogrammes : chaque fichier est analyse
+ * par un DictionaryBasedAnalysis, tous partageant le dictionnaire et l'index des
+ * motifs. Les analyses tournent sur un nombre fixe de threads et le nombre de
+ * fichiers en cours est borne, un fichier n'etant lu qu'au moment ou une place
+ * se libere : la memoire utilisee ne depend pas du nombre de fichiers. Chaque
+ * resultat est transmis des que son analyse est terminee. Le pool peut etre
+ * fourni par l'appelant pour etre reutilise d'un lot a l'autre.
+ * @author virgi
+ *
+ */
+public final class BatchDecryption {
+	private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+	private static final String DICTIONARY = "src/main/resources/mots/dictionnaire_FR_sans_accents.txt";
+
+	private final Lexicon dict;
+	private final PatternIndex patternIndex;
+	private final int threads;
+	private final int candidatesPerWord;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	/**
+	 * constructeur recevant le dictionnaire partage et le nombre de threads
+	 * @param dict
+	 * @param threads
+	 */
+	public BatchDecryption(Lexicon dict, int threads) {
+		this(dict, PatternIndex.of(dict), threads, 1);
+	}
+
+	/**
+	 * constructeur recevant le dictionnaire et l'index des motifs partages, le
+	 * nombre de threads et le nombre de candidats essayes pour chaque mot
+	 * @param dict
+	 * @param patternIndex
+	 * @param threads
+	 * @param candidatesPerWord
+	 */
+	public BatchDecryption(Lexicon dict, PatternIndex patternIndex, int threads, int candidatesPerWord) {
+		if (threads < 1)
+			throw new IllegalArgumentException("at least one thread is needed");
+		if (candidatesPerWord < 1)
+			throw new IllegalArgumentException("at least one candidate per word must be tried");
+		this.dict = dict;
+		this.patternIndex = patternIndex;
+		this.threads = threads;
+		this.candidatesPerWord = candidatesPerWord;
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * dechiffre tous les fichiers du repertoire (sans les sous-repertoires), sur
+	 * un pool cree pour l'occasion
+	 * @param directory
+	 * @param sink      recoit chaque resultat des qu'il est disponible
+	 * @return le nombre de fichiers traites
+	 * @throws IOException          si le repertoire ne peut pas etre lu
+	 * @throws InterruptedException
+	 * @see #decryptDirectory(Path, Consumer, ExecutorService)
+	 */
+	public long decryptDirectory(Path directory, Consumer<? super Result> sink)
+			throws IOException, InterruptedException {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			return decryptDirectory(directory, sink, pool);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * dechiffre tous les fichiers du repertoire (sans les sous-repertoires), sur
+	 * le pool fourni. Le repertoire est lu au fur et a mesure, dans l'ordre
+	 * renvoye par le systeme de fichiers, sans charger la liste de ses fichiers
+	 * @param directory
+	 * @param sink      recoit chaque resultat des qu'il est disponible
+	 * @param pool      execute les analyses, n'est pas arrete
+	 * @return le nombre de fichiers traites
+	 * @throws IOException          si le repertoire ne peut pas etre lu
+	 * @throws InterruptedException
+	 * @see #decrypt(Iterator, Consumer, ExecutorService)
+	 */
+	public long decryptDirectory(Path directory, Consumer<? super Result> sink, ExecutorService pool)
+			throws IOException, InterruptedException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, file -> Files.isRegularFile(file))) {
+			return decrypt(files.iterator(), sink, pool);
+		} catch (DirectoryIteratorException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * dechiffre les fichiers fournis sur un pool cree pour l'occasion
+	 * @param files
+	 * @param sink  recoit chaque resultat des qu'il est disponible
+	 * @return le nombre de fichiers traites
+	 * @throws InterruptedException
+	 * @see #decrypt(Iterator, Consumer, ExecutorService)
+	 */
+	public long decrypt(Iterator<Path> files, Consumer<? super Result> sink) throws InterruptedException {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			return decrypt(files, sink, pool);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * dechiffre les fichiers fournis au fur et a mesure de leur lecture dans
+	 * l'iterateur, qui n'est avance que lorsqu'une analyse peut demarrer ; au
+	 * plus 2 x threads fichiers sont en cours sur le pool. Les resultats sont
+	 * transmis au sink un par un (jamais simultanement), dans l'ordre ou les
+	 * analyses se terminent ; un fichier illisible donne un resultat en erreur
+	 * sans interrompre les autres. Les exceptions levees par le sink ou par une
+	 * analyse n'interrompent pas le lot : elles sont relancees une fois tous les
+	 * fichiers traites. La methode ne rend la main qu'une fois les analyses
+	 * soumises terminees, meme si elle est interrompue ou si l'iterateur echoue :
+	 * le sink n'est plus appele ensuite.
+	 * @param files
+	 * @param sink  recoit chaque resultat des qu'il est disponible
+	 * @param pool  execute les analyses, n'est pas arrete ; il doit executer
+	 *              toutes les taches soumises
+	 * @return le nombre de fichiers traites
+	 * @throws InterruptedException
+	 * @throws IllegalStateException si le sink ou une analyse a echoue, la premiere
+	 *                               exception en cause et les suivantes supprimees
+	 */
+	public long decrypt(Iterator<Path> files, Consumer<? super Result> sink, ExecutorService pool)
+			throws InterruptedException {
+		int maxInFlight = 2 * threads;
+		Semaphore slots = new Semaphore(maxInFlight);
+		Object sinkLock = new Object();
+		Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+		long count = 0;
+		int held = 0;
+		try {
+			slots.acquire();
+			held = 1;
+			while (files.hasNext()) {
+				Path file = files.next();
+				pool.execute(() -> {
+					try {
+						Result result = decrypt(file);
+						synchronized (sinkLock) {
+							sink.accept(result);
+						}
+					} catch (RuntimeException | Error e) {
+						failures.add(e);
+					} finally {
+						slots.release();
+					}
+				});
+				// la place est desormais rendue par l'analyse
+				held = 0;
+				count++;
+				slots.acquire();
+				held = 1;
+			}
+		} finally {
+			// attend les analyses en cours, y compris en cas d'interruption
+			slots.acquireUninterruptibly(maxInFlight - held);
+		}
+
+		Throwable first = failures.poll();
+		if (first != null) {
+			IllegalStateException failure = new IllegalStateException(
+					(failures.size() + 1) + " of " + count + " files failed", first);
+			failures.forEach(failure::addSuppressed);
+			throw failure;
+		}
+		return count;
+	}
+
+	/**
+	 * dechiffre un fichier
+	 * @param file
+	 * @return le resultat de l'analyse, en erreur si le fichier n'a pu etre lu
+	 */
+	public Result decrypt(Path file) {
+		long start = System.nanoTime();
+		try {
+			String cryptogram = Files.readString(file, StandardCharsets.UTF_8);
+			DictionaryBasedAnalysis dba = new DictionaryBasedAnalysis(cryptogram, dict, patternIndex);
+			String alphabet = dba.guessApproximatedAlphabet(LETTERS, candidatesPerWord);
+			return new Result(file, alphabet, dba.score(alphabet), dba.wordCount(),
+					Duration.ofNanos(System.nanoTime() - start), null);
+		} catch (IOException | RuntimeException e) {
+			return new Result(file, null, 0, 0, Duration.ofNanos(System.nanoTime() - start), e.toString());
+		}
+	}
+
+	/**
+	 * resultat de l'analyse d'un fichier
+	 */
+	public static final class Result {
+		private final Path file;
+		private final String alphabet;
+		private final int score;
+		private final int wordCount;
+		private final Duration elapsed;
+		private final String error;
+
+		private Result(Path file, String alphabet, int score, int wordCount, Duration elapsed, String error) {
+			this.file = file;
+			this.alphabet = alphabet;
+			this.score = score;
+			this.wordCount = wordCount;
+			this.elapsed = elapsed;
+			this.error = error;
+		}
+
+		/**
+		 * renvoie le fichier analyse
+		 * @return
+		 */
+		public Path getFile() {
+			return this.file;
+		}
+
+		/**
+		 * renvoie l'alphabet de dechiffrement trouve, null en cas d'erreur
+		 * @return
+		 */
+		public String getAlphabet() {
+			return this.alphabet;
+		}
+
+		/**
+		 * renvoie le nombre de mots chiffres dechiffres en un mot du dictionnaire
+		 * @return
+		 */
+		public int getScore() {
+			return this.score;
+		}
+
+		/**
+		 * renvoie le nombre de mots chiffres analyses
+		 * @return
+		 */
+		public int getWordCount() {
+			return this.wordCount;
+		}
+
+		/**
+		 * renvoie la duree de l'analyse
+		 * @return
+		 */
+		public Duration getElapsed() {
+			return this.elapsed;
+		}
+
+		/**
+		 * renvoie si l'analyse a echoue
+		 * @return
+		 */
+		public boolean isError() {
+			return this.error != null;
+		}
+
+		/**
+		 * ligne separee par des tabulations : fichier, alphabet, score, nombre de
+		 * mots, duree en millisecondes, erreur eventuelle
+		 */
+		@Override
+		public String toString() {
+			return file + "\t" + (alphabet == null ? "-" : alphabet) + "\t" + score + "\t" + wordCount + "\t"
+					+ elapsed.toMillis() + (error == null ? "" : "\t" + error);
+		}
+	}
+
+	/*
+	 * MAIN PROGRAM
+	 */
+
+	/**
+	 * dechiffre les fichiers du repertoire args[0] et ecrit une ligne par resultat
+	 * dans le fichier args[1], ou sur la sortie standard
+	 * @param args
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length < 1) {
+			System.err.println("usage: BatchDecryption <directory> [output]");
+			return;
+		}
+		LexicographicTree dict = new LexicographicTree(DICTIONARY);
+		BatchDecryption batch = new BatchDecryption(dict, Runtime.getRuntime().availableProcessors());
+		try (PrintWriter out = args.length > 1
+				? new PrintWriter(Files.newBufferedWriter(Paths.get(args[1])))
+				: new PrintWriter(System.out)) {
+			long count = batch.decryptDirectory(Paths.get(args[0]), result -> {
+				out.println(result);
+				out.flush();
+			});
+			System.err.println(count + " cryptograms processed");
+		}
+	}
+}
@@ -0,0 +1,378 @@
+package cryptanalysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * recherche de la cle par propagation de contraintes : chaque mot chiffre doit
+ * se dechiffrer en l'un des mots du dictionnaire de meme motif. Le mot ayant le
+ * moins de candidats encore possibles est choisi en premier, chacun de ses
+ * candidats fixe des lettres de la cle, ce qui elimine les candidats devenus
+ * incompatibles des autres mots, puis la recherche revient en arriere. Les
+ * candidats restants de chaque mot sont un ensemble de bits ; pour chaque
+ * position et chaque lettre claire, l'ensemble des candidats ayant cette lettre
+ * a cette position est precalcule, de sorte que fixer une lettre revient a des
+ * et/ou logiques sur des tableaux de long. Un mot sans candidat possible (nom
+ * propre...) peut etre ignore, dans une limite fixee, et le nombre de noeuds
+ * explores est borne.
+ * @author virgi
+ *
+ */
+public final class ConstraintSolver implements KeySearchEngine {
+	private static final int ALPHABET_SIZE = 26;
+	private static final int DEFAULT_MAX_WORDS = 80;
+	private static final long DEFAULT_NODE_BUDGET = 200_000;
+	private static final char UNKNOWN = '.';
+
+	private final int[][] words;
+	private final int[] weights;
+	private final String[][] candidates;
+	private final long[][][] masks;
+	private final int totalWeight;
+	private final long nodeBudget;
+	private final int maxSkips;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	/**
+	 * constructeur avec les parametres par defaut : les 80 mots les plus frequents,
+	 * 200 000 noeuds et 20 mots ignores au plus
+	 * @param cryptogram
+	 * @param patternIndex
+	 */
+	public ConstraintSolver(String cryptogram, PatternIndex patternIndex) {
+		this(cryptogram, patternIndex, DEFAULT_MAX_WORDS, DEFAULT_NODE_BUDGET, DEFAULT_MAX_WORDS / 4);
+	}
+
+	/**
+	 * constructeur du solveur
+	 * @param cryptogram   texte chiffre, dont les mots d'au moins 3 lettres A-Z
+	 *                     ayant des candidats sont les contraintes
+	 * @param patternIndex index donnant les candidats de chaque mot
+	 * @param maxWords     nombre de mots retenus, les plus frequents du texte
+	 * @param nodeBudget   nombre maximal de noeuds explores
+	 * @param maxSkips     nombre maximal de mots ignores dans une solution
+	 */
+	public ConstraintSolver(String cryptogram, PatternIndex patternIndex, int maxWords, long nodeBudget,
+			int maxSkips) {
+		if (maxWords < 1 || nodeBudget < 1 || maxSkips < 0)
+			throw new IllegalArgumentException("incorrect solver parameters");
+		this.nodeBudget = nodeBudget;
+		this.maxSkips = maxSkips;
+
+		Map<String, Integer> occurrences = new HashMap<>();
+		for (String word : cryptogram.split("[^A-Z]+")) {
+			if (word.length() >= 3)
+				occurrences.merge(word, 1, Integer::sum);
+		}
+		List<String> selected = new ArrayList<>();
+		List<String[]> selectedCandidates = new ArrayList<>();
+		List<String> byFrequency = new ArrayList<>(occurrences.keySet());
+		byFrequency.sort(Comparator.comparingInt((String word) -> -occurrences.get(word))
+				.thenComparing(Comparator.comparingInt(String::length).reversed()).thenComparing(word -> word));
+		for (String word : byFrequency) {
+			if (selected.size() == maxWords)
+				break;
+			String[] wordCandidates = byLetterFrequency(patternIndex.candidates(word));
+			if (wordCandidates.length == 0)
+				continue;
+			selected.add(word);
+			selectedCandidates.add(wordCandidates);
+		}
+
+		int count = selected.size();
+		this.words = new int[count][];
+		this.weights = new int[count];
+		this.candidates = selectedCandidates.toArray(new String[0][]);
+		this.masks = new long[count][][];
+		int total = 0;
+		for (int w = 0; w < count; w++) {
+			String word = selected.get(w);
+			words[w] = new int[word.length()];
+			for (int i = 0; i < word.length(); i++) {
+				words[w][i] = word.charAt(i) - 'A';
+			}
+			weights[w] = occurrences.get(word);
+			total += weights[w];
+			masks[w] = new long[word.length() * ALPHABET_SIZE][(candidates[w].length + 63) >>> 6];
+			for (int c = 0; c < candidates[w].length; c++) {
+				for (int i = 0; i < word.length(); i++) {
+					int plain = candidates[w][c].charAt(i) - 'a';
+					masks[w][i * ALPHABET_SIZE + plain][c >>> 6] |= 1L << c;
+				}
+			}
+		}
+		this.totalWeight = total;
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * renvoie la cle partielle satisfaisant le plus d'occurrences de mots : pour
+	 * chaque lettre chiffree A-Z, la lettre claire en majuscule, ou '.' si elle
+	 * n'est pas determinee (meme convention que les cles partielles de
+	 * DictionaryBasedAnalysis.candidates)
+	 * @return
+	 */
+	public String solve() {
+		int[] mapping = new Search().run();
+		char[] key = new char[ALPHABET_SIZE];
+		for (int x = 0; x < ALPHABET_SIZE; x++) {
+			key[x] = mapping[x] < 0 ? UNKNOWN : (char) ('A' + mapping[x]);
+		}
+		return new String(key);
+	}
+
+	/**
+	 * Returns the decoding alphabet made of the letters determined by the
+	 * constraint search; each undetermined letter keeps its decoding in the
+	 * starting alphabet when that plain letter is still free, the others receive
+	 * the remaining plain letters in alphabetical order.
+	 *
+	 * @param startAlphabet The decoding alphabet completing the solved letters
+	 * @return The decoding alphabet
+	 */
+	@Override
+	public String search(String startAlphabet) {
+		String start = SubstitutionTable.of(startAlphabet).getAlphabet().toUpperCase();
+		char[] alphabet = solve().toCharArray();
+		boolean[] used = new boolean[ALPHABET_SIZE];
+		for (char plain : alphabet) {
+			if (plain != UNKNOWN)
+				used[plain - 'A'] = true;
+		}
+		for (int x = 0; x < ALPHABET_SIZE; x++) {
+			if (alphabet[x] == UNKNOWN && !used[start.charAt(x) - 'A']) {
+				alphabet[x] = start.charAt(x);
+				used[start.charAt(x) - 'A'] = true;
+			}
+		}
+		int free = 0;
+		for (int x = 0; x < ALPHABET_SIZE; x++) {
+			if (alphabet[x] == UNKNOWN) {
+				while (used[free])
+					free++;
+				alphabet[x] = (char) ('A' + free);
+				used[free] = true;
+			}
+		}
+		return new String(alphabet);
+	}
+
+	/**
+	 * renvoie le nombre de mots chiffres retenus comme contraintes
+	 * @return
+	 */
+	public int constraintCount() {
+		return words.length;
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	/**
+	 * renvoie les candidats composes de lettres a-z, ceux faits des lettres les plus
+	 * frequentes en francais en premier
+	 */
+	private static String[] byLetterFrequency(List<String> words) {
+		List<String> kept = new ArrayList<>();
+		for (String word : words) {
+			if (isLowerCaseWord(word))
+				kept.add(word);
+		}
+		double[] scores = new double[kept.size()];
+		Integer[] order = new Integer[kept.size()];
+		for (int i = 0; i < order.length; i++) {
+			scores[i] = DictionaryBasedAnalysis.frequencyScore(kept.get(i));
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingDouble((Integer i) -> -scores[i]));
+		String[] sorted = new String[order.length];
+		for (int i = 0; i < order.length; i++) {
+			sorted[i] = kept.get(order[i]);
+		}
+		return sorted;
+	}
+
+	private static boolean isLowerCaseWord(String word) {
+		for (int i = 0; i < word.length(); i++) {
+			if (word.charAt(i) < 'a' || word.charAt(i) > 'z')
+				return false;
+		}
+		return true;
+	}
+
+	private static int cardinality(long[] bits) {
+		int count = 0;
+		for (long word : bits) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * etat d'une recherche : cle partielle, candidats restants de chaque mot et
+	 * piles d'annulation
+	 */
+	private final class Search {
+		private final int[] mapping = new int[ALPHABET_SIZE];
+		private final long[][] live = new long[words.length][];
+		private final boolean[] decided = new boolean[words.length];
+
+		private final int[] mappingTrail = new int[ALPHABET_SIZE];
+		private int mappingTop;
+		private final List<long[]> savedLive = new ArrayList<>();
+		private final List<Integer> savedWords = new ArrayList<>();
+		private final int[] savedStamp = new int[words.length];
+		private int stamp;
+
+		private int[] bestMapping;
+		private int bestWeight = -1;
+		private long nodes;
+
+		private Search() {
+			Arrays.fill(mapping, -1);
+			for (int w = 0; w < words.length; w++) {
+				live[w] = new long[(candidates[w].length + 63) >>> 6];
+				for (int c = 0; c < candidates[w].length; c++) {
+					live[w][c >>> 6] |= 1L << c;
+				}
+			}
+		}
+
+		private int[] run() {
+			solve(0, 0);
+			return bestMapping == null ? mapping.clone() : bestMapping;
+		}
+
+		private boolean isOver() {
+			return nodes >= nodeBudget || bestWeight == totalWeight;
+		}
+
+		private void solve(int weight, int skips) {
+			nodes++;
+			if (weight > bestWeight) {
+				bestWeight = weight;
+				bestMapping = mapping.clone();
+			}
+			int chosen = -1;
+			int fewest = Integer.MAX_VALUE;
+			int bound = weight;
+			for (int w = 0; w < words.length; w++) {
+				if (decided[w])
+					continue;
+				int count = cardinality(live[w]);
+				if (count > 0)
+					bound += weights[w];
+				if (count < fewest) {
+					fewest = count;
+					chosen = w;
+				}
+			}
+			if (chosen < 0 || bound <= bestWeight || isOver())
+				return;
+
+			decided[chosen] = true;
+			long[] choices = live[chosen].clone();
+			for (int c = nextCandidate(choices, 0); c >= 0 && !isOver(); c = nextCandidate(choices, c + 1)) {
+				int liveMark = savedLive.size();
+				int mappingMark = mappingTop;
+				assign(chosen, c);
+				solve(weight + weights[chosen], skips);
+				undo(liveMark, mappingMark);
+			}
+			if (skips < maxSkips && !isOver())
+				solve(weight, skips + 1);
+			decided[chosen] = false;
+		}
+
+		private int nextCandidate(long[] bits, int from) {
+			int index = from >>> 6;
+			if (index >= bits.length)
+				return -1;
+			long word = bits[index] & (-1L << from);
+			while (true) {
+				if (word != 0)
+					return index * 64 + Long.numberOfTrailingZeros(word);
+				if (++index == bits.length)
+					return -1;
+				word = bits[index];
+			}
+		}
+
+		/**
+		 * fixe les lettres du candidat c du mot w et retire des autres mots les
+		 * candidats devenus incompatibles
+		 */
+		private void assign(int w, int c) {
+			stamp++;
+			for (int i = 0; i < words[w].length; i++) {
+				int cipher = words[w][i];
+				if (mapping[cipher] >= 0)
+					continue;
+				int plain = candidates[w][c].charAt(i) - 'a';
+				mapping[cipher] = plain;
+				mappingTrail[mappingTop++] = cipher;
+				propagate(cipher, plain);
+			}
+		}
+
+		private void propagate(int cipher, int plain) {
+			for (int v = 0; v < words.length; v++) {
+				if (decided[v])
+					continue;
+				for (int i = 0; i < words[v].length; i++) {
+					int other = words[v][i];
+					if (other == cipher)
+						and(v, masks[v][i * ALPHABET_SIZE + plain]);
+					else if (mapping[other] < 0)
+						andNot(v, masks[v][i * ALPHABET_SIZE + plain]);
+				}
+			}
+		}
+
+		private void and(int v, long[] mask) {
+			save(v);
+			long[] bits = live[v];
+			for (int k = 0; k < bits.length; k++) {
+				bits[k] &= mask[k];
+			}
+		}
+
+		private void andNot(int v, long[] mask) {
+			save(v);
+			long[] bits = live[v];
+			for (int k = 0; k < bits.length; k++) {
+				bits[k] &= ~mask[k];
+			}
+		}
+
+		private void save(int v) {
+			if (savedStamp[v] == stamp)
+				return;
+			savedStamp[v] = stamp;
+			savedWords.add(v);
+			savedLive.add(live[v].clone());
+		}
+
+		private void undo(int liveMark, int mappingMark) {
+			for (int k = savedLive.size() - 1; k >= liveMark; k--) {
+				live[savedWords.remove(k)] = savedLive.remove(k);
+			}
+			while (mappingTop > mappingMark) {
+				int cipher = mappingTrail[--mappingTop];
+				mapping[cipher] = -1;
+			}
+			stamp++;
+		}
+	}
+}
@@ -1,30 +1,44 @@
 package cryptanalysis;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
-import java.util.StringJoiner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import tree.LexicographicTree;
+import tree.Lexicon;
 
 /**
  * classe effectuant la cryptanalyse
  * @author virgi
  *
  */
-public class DictionaryBasedAnalysis {
+public class DictionaryBasedAnalysis implements KeySearchEngine {
 
 	private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
 	private static final String DICTIONARY = "src/main/resources/mots/dictionnaire_FR_sans_accents.txt";
@@ -32,10 +46,17 @@ public class DictionaryBasedAnalysis {
 	private static final String DECODING_ALPHABET = "VNSTBIQLWOZUEJMRYGCPDKHXAF"; // Sherlock
 	private static final Pattern PATTERN_ALL_WORD = Pattern.compile("(\\w+)");
 	private static final Comparator<String> COMP_STRING_BY_LENGTH = (word1, word2) -> word2.length() - word1.length();
+	/*
+	 * frequences des lettres A-Z en francais (pourcentages), utilisees pour classer
+	 * les mots candidats et pour l'alphabet de depart des analyses paralleles
+	 */
+	private static final double[] FRENCH_FREQUENCIES = { 7.64, 0.90, 3.26, 3.67, 14.72, 1.07, 0.87, 0.74, 7.53,
+			0.61, 0.05, 5.46, 2.97, 7.10, 5.80, 2.52, 1.36, 6.69, 7.95, 7.24, 6.31, 1.84, 0.04, 0.43, 0.13, 0.33 };
+	private static final double[] LOG_FREQUENCIES = Arrays.stream(FRENCH_FREQUENCIES).map(Math::log).toArray();
 
 	private final List<String> encodedWords;
-	private final LexicographicTree dict;
-	private final Map<Integer, List<String>> wordsByLength;
+	private final Lexicon dict;
+	private final PatternIndex patternIndex;
 	private final Map<String, String> solvedWords;
 
 	/*
@@ -45,16 +66,55 @@ public class DictionaryBasedAnalysis {
 	
 	/**
 	 * constucteur du DictionaryBasedAnalysis recevant le cryptogram et le dictionnaire
+	 * (arbre lexicographique, version figee ou instantane projete en memoire)
 	 * @param cryptogram
 	 * @param dict
 	 */
-	public DictionaryBasedAnalysis(String cryptogram, LexicographicTree dict) {
+	public DictionaryBasedAnalysis(String cryptogram, Lexicon dict) {
+		this(cryptogram, dict, PatternIndex.of(dict));
+	}
+
+	/**
+	 * constucteur du DictionaryBasedAnalysis recevant le cryptogram, le dictionnaire
+	 * et l'index des motifs de ce dictionnaire, partage entre plusieurs analyses
+	 * @param cryptogram
+	 * @param dict
+	 * @param patternIndex
+	 */
+	public DictionaryBasedAnalysis(String cryptogram, Lexicon dict, PatternIndex patternIndex) {
+		this(new ArrayList<String>(Arrays.asList(cryptogram.split(" "))).stream()
+				.filter(word -> PATTERN_ALL_WORD.matcher(word).matches() && word.length() >= 3).map(String::trim)
+				.distinct().sorted(COMP_STRING_BY_LENGTH).collect(Collectors.toList()), dict, patternIndex);
+	}
+
+	/**
+	 * constucteur du DictionaryBasedAnalysis recevant le cryptogram en octets ASCII
+	 * (par exemple un fichier projete en memoire) et le dictionnaire. Seuls les
+	 * mots retenus sont convertis en String, le texte n'est pas decode
+	 * @param cryptogram octets entre la position et la limite du tampon, qui ne
+	 *                   sont pas modifiees
+	 * @param dict
+	 */
+	public DictionaryBasedAnalysis(ByteBuffer cryptogram, Lexicon dict) {
+		this(cryptogram, dict, PatternIndex.of(dict));
+	}
+
+	/**
+	 * constucteur du DictionaryBasedAnalysis recevant le cryptogram en octets ASCII,
+	 * le dictionnaire et l'index des motifs de ce dictionnaire
+	 * @param cryptogram
+	 * @param dict
+	 * @param patternIndex
+	 */
+	public DictionaryBasedAnalysis(ByteBuffer cryptogram, Lexicon dict, PatternIndex patternIndex) {
+		this(encodedWords(cryptogram), dict, patternIndex);
+	}
+
+	private DictionaryBasedAnalysis(List<String> encodedWords, Lexicon dict, PatternIndex patternIndex) {
 		this.solvedWords = new HashMap<>();
-		this.wordsByLength = new HashMap<>();
 		this.dict = dict;
-		this.encodedWords = new ArrayList<String>(Arrays.asList(cryptogram.split(" "))).stream()
-				.filter(word -> PATTERN_ALL_WORD.matcher(word).matches() && word.length() >= 3).map(String::trim)
-				.distinct().sorted(COMP_STRING_BY_LENGTH).collect(Collectors.toList());
+		this.patternIndex = patternIndex;
+		this.encodedWords = encodedWords;
 	}
 
 	/*
@@ -69,34 +129,175 @@ public class DictionaryBasedAnalysis {
 	 * @return The decoding alphabet at the end of the analysis process
 	 */
 	public String guessApproximatedAlphabet(String givenAlphabet) {
+		return guessApproximatedAlphabet(givenAlphabet, 1);
+	}
+
+	/**
+	 * Performs a dictionary-based analysis of the cryptogram and returns an
+	 * approximated decoding alphabet. For each unsolved encoded word, up to
+	 * 'candidatesPerWord' dictionary words of the same pattern are tried and the
+	 * best improving one is kept. Candidates needing the fewest letter changes
+	 * from the current decoding are tried first; no letter is locked, since a
+	 * short word decoded by chance would otherwise freeze wrong letters. With a
+	 * single candidate per word, only words with repeated letters are used. On
+	 * short cryptograms, where few such words exist, a few candidates per word
+	 * decode far more words; on long ones a single candidate is enough and
+	 * faster.
+	 * 
+	 * @param givenAlphabet     The decoding alphabet from which the analysis starts
+	 * @param candidatesPerWord Maximum number of candidates tried for each word
+	 * @return The decoding alphabet at the end of the analysis process
+	 */
+	public String guessApproximatedAlphabet(String givenAlphabet, int candidatesPerWord) {
 		if (givenAlphabet==null||givenAlphabet.length() != 26||!checkAlphabet(givenAlphabet)) {
 			throw new IllegalArgumentException("the alphabet must be 26 in length");
 		}
+		if (candidatesPerWord < 1) {
+			throw new IllegalArgumentException("at least one candidate per word must be tried");
+		}
 	
-		String alphabet = givenAlphabet.toUpperCase();
-		int score = this.alphabetScore(alphabet);
-		int actualScore;
-		String actualAlphabet;
-		for (String encodedWord : encodedWords) {
-			if (solvedWords.containsKey(encodedWord))
-				continue;
-			String encodedApply = applySubstitution(encodedWord, alphabet);
-			// if(dict.containsWord(encodedApply))continue;
-			String word = getCompatibleWord(encodedApply);
-			if (word == null)
-				continue;
-			actualAlphabet = generateAlphabet(encodedApply, word.toUpperCase(), alphabet);
-			actualScore = this.alphabetScore(actualAlphabet);
+		return search(givenAlphabet.toUpperCase(), candidatesPerWord, () -> false).alphabet;
+	}
 
-			if (actualScore > score) {
-				score = actualScore;
-				alphabet = actualAlphabet;
-				// System.out.println(alphabet);
-			}
+	/**
+	 * Performs a dictionary-based analysis from the supplied alphabet, so that the
+	 * analysis confirms with the dictionary the result of another search engine.
+	 * 
+	 * @param startAlphabet The decoding alphabet from which the analysis starts
+	 * @return The decoding alphabet at the end of the analysis process
+	 * @see #guessApproximatedAlphabet(String)
+	 */
+	@Override
+	public String search(String startAlphabet) {
+		return guessApproximatedAlphabet(startAlphabet);
+	}
+
+	/**
+	 * Performs several dictionary-based analyses in parallel on the common
+	 * fork-join pool and returns the best decoding alphabet found.
+	 * 
+	 * @param starts            Number of starting alphabets
+	 * @param candidatesPerWord Maximum number of candidates tried for each word
+	 * @param timeBudget        Maximum duration of the analysis
+	 * @return The decoding alphabet decoding the most words into dictionary words
+	 * @see #guessApproximatedAlphabetInParallel(int, int, Duration, ExecutorService)
+	 */
+	public String guessApproximatedAlphabetInParallel(int starts, int candidatesPerWord, Duration timeBudget) {
+		return guessApproximatedAlphabetInParallel(starts, candidatesPerWord, timeBudget, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Performs several independent dictionary-based analyses on the supplied pool
+	 * and returns the best decoding alphabet found. The first analysis starts from
+	 * the alphabet matching cipher letter frequencies with French letter
+	 * frequencies, the others from random alphabets (the same for each call). Each
+	 * analysis uses its own state and shares the dictionary and the pattern index.
+	 * All analyses stop as soon as one of them decodes every word, or when the time
+	 * budget is exhausted; the best alphabet reached so far is then returned.
+	 * 
+	 * @param starts            Number of starting alphabets
+	 * @param candidatesPerWord Maximum number of candidates tried for each word
+	 * @param timeBudget        Maximum duration of the analysis
+	 * @param pool              Pool running the analyses
+	 * @return The decoding alphabet decoding the most words into dictionary words
+	 */
+	public String guessApproximatedAlphabetInParallel(int starts, int candidatesPerWord, Duration timeBudget,
+			ExecutorService pool) {
+		if (starts < 1) {
+			throw new IllegalArgumentException("at least one starting alphabet is needed");
+		}
+		if (candidatesPerWord < 1) {
+			throw new IllegalArgumentException("at least one candidate per word must be tried");
+		}
+		long deadline = System.nanoTime() + timeBudget.toNanos();
+		AtomicBoolean stop = new AtomicBoolean();
+		BooleanSupplier stopped = () -> stop.get() || System.nanoTime() - deadline >= 0;
+
+		String frequencyAlphabet = NGramModel.frequencyAlphabet(String.join(" ", encodedWords),
+				letter -> FRENCH_FREQUENCIES[letter]);
+		List<Future<Guess>> futures = new ArrayList<>();
+		for (int i = 0; i < starts; i++) {
+			String start = i == 0 ? frequencyAlphabet : randomAlphabet(new Random(i));
+			futures.add(pool.submit(() -> {
+				DictionaryBasedAnalysis worker = new DictionaryBasedAnalysis(encodedWords, dict, patternIndex);
+				Guess guess = worker.search(start, candidatesPerWord, stopped);
+				if (guess.score == encodedWords.size())
+					stop.set(true);
+				return guess;
+			}));
+		}
+
+		Guess best = null;
+		for (Future<Guess> future : futures) {
+			Guess guess = waitFor(future, deadline, stop);
+			if (best == null || guess.score > best.score)
+				best = guess;
+		}
+		return best.alphabet;
+	}
+
+	/**
+	 * Returns the dictionary words that an encoded word may stand for, with no
+	 * letter confirmed: the words having the repetition pattern of the encoded
+	 * word, the ones made of the most frequent French letters first. This is the
+	 * enumeration used by guessApproximatedAlphabet with several candidates per
+	 * word: restricting candidates to the letters confirmed by the words decoded
+	 * so far locks in the letters of short words decoded by chance, and on the
+	 * Sherlock cryptogram the analysis then finds 11 to 22 correct letters
+	 * instead of 26.
+	 * 
+	 * @param encodedWord An encoded word (letters A-Z)
+	 * @return The compatible dictionary words, most likely first
+	 * @see #candidates(String, String)
+	 */
+	public List<String> candidates(String encodedWord) {
+		return candidates(encodedWord, ".".repeat(26));
+	}
 
+	/**
+	 * Returns the dictionary words that an encoded word may stand for, given a
+	 * partial key. The partial key gives, for each cipher letter A-Z, the plain
+	 * letter already confirmed for it, or any non-letter character (for example
+	 * '.') when unknown. A candidate has the repetition pattern of the encoded
+	 * word, agrees with every confirmed letter, and does not use a plain letter
+	 * already confirmed for another cipher letter. Words with and without repeated
+	 * letters are both covered. Candidates made of the most frequent French
+	 * letters come first.
+	 * 
+	 * @param encodedWord An encoded word (letters A-Z)
+	 * @param partialKey  The confirmed part of the decoding alphabet
+	 * @return The compatible dictionary words, most likely first
+	 */
+	public List<String> candidates(String encodedWord, String partialKey) {
+		if (partialKey == null || partialKey.length() != 26)
+			throw new IllegalArgumentException("the partial key must be 26 in length");
+		String key = partialKey.toUpperCase();
+		String encoded = encodedWord.toUpperCase();
+		boolean[] confirmedPlain = new boolean[26];
+		for (int i = 0; i < key.length(); i++) {
+			int plain = key.charAt(i) - 'A';
+			if (plain >= 0 && plain < 26)
+				confirmedPlain[plain] = true;
 		}
 
-		return alphabet;
+		List<String> words = new ArrayList<>();
+		for (String word : patternIndex.candidates(encoded)) {
+			if (isConsistent(encoded, word, key, confirmedPlain))
+				words.add(word);
+		}
+		// chaque score est calcule une seule fois, puis les indices sont tries
+		double[] scores = new double[words.size()];
+		Integer[] order = new Integer[words.size()];
+		for (int i = 0; i < scores.length; i++) {
+			scores[i] = frequencyScore(words.get(i));
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingDouble((Integer i) -> -scores[i]));
+		List<String> sorted = new ArrayList<>(words.size());
+		for (Integer i : order) {
+			sorted.add(words.get(i));
+		}
+		return sorted;
 	}
 
 	/**
@@ -107,30 +308,52 @@ public class DictionaryBasedAnalysis {
 	 * @return The substituted text
 	 */
 	public static String applySubstitution(String text, String alphabet) {
-		if (alphabet == null || !PATTERN_ALL_WORD.matcher(alphabet).matches() || alphabet.length() != 26)
-			throw new IllegalArgumentException("incorrect alphabet.");
-
-		if (!checkAlphabet(alphabet))
-			throw new IllegalArgumentException("incorrect alphabet.");
+		SubstitutionTable table = SubstitutionTable.of(alphabet);
 
 		if (text == null) {
 			throw new IllegalArgumentException("incorrect text.");
 
 		}
 
-		String result = "";
-		for (int i = 0; i < text.length(); i++) {
-			char character = text.charAt(i);
-			if (character == ' ' || character == '\n') {
-				result += character;
-			} else {
-				int index = LETTERS.indexOf(character);
-				if (index != -1) {
-					result += alphabet.charAt(index);
-				}
-			}
+		return table.apply(text);
+	}
+
+	/**
+	 * Applies an alphabet-specified substitution to an ASCII text, reading the
+	 * bytes remaining in 'text' and writing the result into 'out'.
+	 * 
+	 * @param text     A text in ASCII bytes
+	 * @param out      The buffer receiving the substituted text
+	 * @param alphabet A substitution alphabet
+	 * @return The number of bytes written
+	 */
+	public static int applySubstitution(ByteBuffer text, ByteBuffer out, String alphabet) {
+		SubstitutionTable table = SubstitutionTable.of(alphabet);
+
+		if (text == null) {
+			throw new IllegalArgumentException("incorrect text.");
 		}
-		return result;
+
+		return table.apply(text, out);
+	}
+
+	/**
+	 * renvoie le nombre de mots chiffres dechiffres en un mot du dictionnaire par
+	 * l'alphabet fourni
+	 * @param alphabet
+	 * @return
+	 */
+	int score(String alphabet) {
+		return new AlphabetScorer(encodedWords, dict).reset(alphabet.toUpperCase(), index -> {
+		});
+	}
+
+	/**
+	 * renvoie le nombre de mots chiffres distincts analyses
+	 * @return
+	 */
+	int wordCount() {
+		return encodedWords.size();
 	}
 
 	/*
@@ -214,64 +437,182 @@ public class DictionaryBasedAnalysis {
 		return data;
 	}
 
-	private int alphabetScore(String alphabet) {
-		if (alphabet.length() != 26)
-			return 0;
-		int score = 0;
-		for (String encodedword : this.encodedWords) {
-			String word = applySubstitution(encodedword, alphabet).toLowerCase();
+	/**
+	 * analyse gloutonne a partir de l'alphabet fourni (en majuscules), interrompue
+	 * des que stopped renvoie vrai ; renvoie l'alphabet atteint et son score
+	 * @param start
+	 * @param candidatesPerWord
+	 * @param stopped
+	 * @return
+	 */
+	private Guess search(String start, int candidatesPerWord, BooleanSupplier stopped) {
+		String alphabet = start;
+		AlphabetScorer scorer = new AlphabetScorer(encodedWords, dict);
+		int score = scorer.reset(alphabet, this.solvedBy(alphabet));
+		SubstitutionTable table = SubstitutionTable.of(alphabet);
+		for (String encodedWord : encodedWords) {
+			if (stopped.getAsBoolean())
+				break;
+			if (solvedWords.containsKey(encodedWord))
+				continue;
+			String encodedApply = table.apply(encodedWord);
+			// if(dict.containsWord(encodedApply))continue;
+			List<String> words;
+			if (candidatesPerWord == 1) {
+				String word = getCompatibleWord(encodedApply);
+				words = word == null ? List.of() : List.of(word);
+			} else {
+				words = candidates(encodedWord);
+				String decoded = encodedApply.toLowerCase();
+				words.sort(Comparator.comparingInt((String word) -> -agreement(word, decoded)));
+			}
 
-			if (dict.containsWord(word)) {
-				this.solvedWords.put(encodedword, word);
-				score += 1;
+			String bestAlphabet = null;
+			int bestScore = score;
+			for (int i = 0; i < words.size() && i < candidatesPerWord; i++) {
+				String actualAlphabet = generateAlphabet(encodedApply, words.get(i).toUpperCase(), alphabet);
+				int actualScore = scorer.score(actualAlphabet, this.solvedBy(actualAlphabet));
+				if (actualScore > bestScore) {
+					bestScore = actualScore;
+					bestAlphabet = actualAlphabet;
+				}
 			}
-		}
-		return score;
-	}
 
-	private String getCompatibleWord(String encodedWord) {
-		List<String> words = this.wordsByLength.get(encodedWord.length());
+			if (bestAlphabet != null) {
+				score = scorer.accept(bestAlphabet);
+				alphabet = bestAlphabet;
+				table = SubstitutionTable.of(alphabet);
+			}
 
-		if (words == null) {
-			words = dict.getWordsOfLength(encodedWord.length());
-			this.wordsByLength.put(encodedWord.length(), words);
 		}
 
-		String encodedRepetition = wordToCorrespondence(encodedWord);
-		if (encodedRepetition == null)
-			return null;
+		return new Guess(alphabet, score);
+	}
 
-		for (String word : words) {
-			if (!PATTERN_ALL_WORD.matcher(word).matches())
-				continue;
-			String wordRepetition = wordToCorrespondence(word);
-			if (wordRepetition == null)
-				continue;
-			if (wordRepetition.equals(encodedRepetition)) {
-				return word;
+	/**
+	 * attend le resultat d'une analyse ; une fois le delai depasse, demande l'arret
+	 * de toutes les analyses puis attend qu'elles renvoient leur meilleur alphabet
+	 */
+	private static Guess waitFor(Future<Guess> future, long deadline, AtomicBoolean stop) {
+		try {
+			try {
+				return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+			} catch (TimeoutException e) {
+				stop.set(true);
+				return future.get();
 			}
+		} catch (InterruptedException e) {
+			stop.set(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("analysis interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("analysis failed", e.getCause());
 		}
-		return null;
 	}
 
-	private String wordToCorrespondence(String word) {
-		StringJoiner wordCorrespondance = new StringJoiner("");
-		Map<String, Integer> letters = new HashMap<>();
-		boolean repetition = false;
+	private static String randomAlphabet(Random random) {
+		List<Character> letters = new ArrayList<>();
+		for (int i = 0; i < LETTERS.length(); i++) {
+			letters.add(LETTERS.charAt(i));
+		}
+		Collections.shuffle(letters, random);
+		StringBuilder alphabet = new StringBuilder();
+		for (Character letter : letters) {
+			alphabet.append(letter);
+		}
+		return alphabet.toString();
+	}
 
-		for (String let : word.split("")) {
-			if (!letters.containsKey(let)) {
-				letters.put(let, letters.size());
-			} else {
-				repetition = true;
+	/**
+	 * decoupe le texte ASCII aux espaces et renvoie, comme le constructeur recevant
+	 * une String, les mots distincts d'au moins 3 caracteres [A-Za-z0-9_] tries par
+	 * longueur decroissante
+	 * @param cryptogram
+	 * @return
+	 */
+	private static List<String> encodedWords(ByteBuffer cryptogram) {
+		Set<String> words = new LinkedHashSet<>();
+		int start = cryptogram.position();
+		boolean isWord = true;
+		for (int i = cryptogram.position(); i <= cryptogram.limit(); i++) {
+			byte character = i < cryptogram.limit() ? cryptogram.get(i) : (byte) ' ';
+			if (character == ' ') {
+				if (isWord && i - start >= 3) {
+					byte[] word = new byte[i - start];
+					cryptogram.get(start, word);
+					words.add(new String(word, StandardCharsets.US_ASCII));
+				}
+				start = i + 1;
+				isWord = true;
+			} else if (!isWordCharacter(character)) {
+				isWord = false;
 			}
-			wordCorrespondance.add(String.valueOf(letters.get(let)));
 		}
+		List<String> result = new ArrayList<>(words);
+		result.sort(COMP_STRING_BY_LENGTH);
+		return result;
+	}
 
-		if (!repetition) {
-			return null;
+	private static boolean isWordCharacter(byte character) {
+		return character >= 'a' && character <= 'z' || character >= 'A' && character <= 'Z'
+				|| character >= '0' && character <= '9' || character == '_';
+	}
+
+	/**
+	 * renvoie l'action qui retient comme resolu le mot chiffre d'indice donne,
+	 * dechiffre avec l'alphabet fourni
+	 * @param alphabet
+	 * @return
+	 */
+	private IntConsumer solvedBy(String alphabet) {
+		SubstitutionTable table = SubstitutionTable.of(alphabet);
+		return index -> {
+			String encodedWord = this.encodedWords.get(index);
+			this.solvedWords.put(encodedWord, table.apply(encodedWord).toLowerCase());
+		};
+	}
+
+	private static boolean isConsistent(String encoded, String word, String key, boolean[] confirmedPlain) {
+		for (int i = 0; i < encoded.length(); i++) {
+			int cipher = encoded.charAt(i) - 'A';
+			char plain = Character.toUpperCase(word.charAt(i));
+			if (cipher < 0 || cipher >= 26 || plain < 'A' || plain > 'Z')
+				return false;
+			char known = key.charAt(cipher);
+			if (known >= 'A' && known <= 'Z' ? known != plain : confirmedPlain[plain - 'A'])
+				return false;
 		}
-		return wordCorrespondance.toString();
+		return true;
+	}
+
+	/**
+	 * nombre de positions ou le mot candidat a deja la lettre du mot dechiffre
+	 */
+	private static int agreement(String word, String decoded) {
+		int count = 0;
+		for (int i = 0; i < word.length(); i++) {
+			if (word.charAt(i) == decoded.charAt(i))
+				count++;
+		}
+		return count;
+	}
+
+	static double frequencyScore(String word) {
+		double score = 0;
+		for (int i = 0; i < word.length(); i++) {
+			int letter = Character.toUpperCase(word.charAt(i)) - 'A';
+			score += LOG_FREQUENCIES[letter];
+		}
+		return score;
+	}
+
+	private String getCompatibleWord(String encodedWord) {
+		String encodedRepetition = PatternIndex.pattern(encodedWord);
+		if (!PatternIndex.hasRepetition(encodedRepetition))
+			return null;
+
+		List<String> words = patternIndex.candidatesOfPattern(encodedRepetition);
+		return words.isEmpty() ? null : words.get(0);
 	}
 	
 	/**
@@ -299,6 +640,19 @@ public class DictionaryBasedAnalysis {
 		return letters.size()==26;
 	}
 
+	/**
+	 * alphabet atteint par une analyse et nombre de mots qu'il dechiffre
+	 */
+	private static final class Guess {
+		private final String alphabet;
+		private final int score;
+
+		private Guess(String alphabet, int score) {
+			this.alphabet = alphabet;
+			this.score = score;
+		}
+	}
+
 	/*
 	 * MAIN PROGRAM
 	 */
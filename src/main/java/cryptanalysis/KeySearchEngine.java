@@ -0,0 +1,34 @@
+package cryptanalysis;
+
+import java.util.Objects;
+
+/**
+ * moteur de recherche d'un alphabet de dechiffrement a partir d'un alphabet de
+ * depart. Les moteurs s'enchainent, par exemple une recherche stochastique
+ * suivie d'une confirmation par le dictionnaire
+ * @author virgi
+ *
+ */
+public interface KeySearchEngine {
+
+	/**
+	 * Returns the decoding alphabet reached by the search from a starting
+	 * alphabet.
+	 *
+	 * @param startAlphabet The decoding alphabet from which the search starts
+	 * @return The decoding alphabet at the end of the search
+	 */
+	String search(String startAlphabet);
+
+	/**
+	 * Returns an engine running this search, then 'next' from the alphabet it
+	 * reached.
+	 *
+	 * @param next The engine refining the result of this one
+	 * @return The chained engine
+	 */
+	default KeySearchEngine andThen(KeySearchEngine next) {
+		Objects.requireNonNull(next);
+		return startAlphabet -> next.search(search(startAlphabet));
+	}
+}
@@ -0,0 +1,250 @@
+package cryptanalysis;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntToDoubleFunction;
+import java.util.regex.Pattern;
+
+import tree.Lexicon;
+
+/**
+ * modele statistique du francais : log-probabilites des lettres, bigrammes et
+ * quadrigrammes, stockees dans des tableaux de float a plat (indice
+ * ((a * 26 + b) * 26 + c) * 26 + d pour le quadrigramme abcd). Les n-grammes
+ * sont comptes dans les suites de lettres consecutives, les accents etant
+ * retires ; un n-gramme jamais rencontre recoit une probabilite plancher.
+ * @author virgi
+ *
+ */
+public final class NGramModel {
+	private static final int ALPHABET_SIZE = 26;
+	private static final int BIGRAM_COUNT = ALPHABET_SIZE * ALPHABET_SIZE;
+	private static final int TRIGRAM_COUNT = BIGRAM_COUNT * ALPHABET_SIZE;
+	private static final int QUADGRAM_COUNT = TRIGRAM_COUNT * ALPHABET_SIZE;
+	private static final double FLOOR = 0.01;
+	private static final byte NO_LETTER = -1;
+	private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+	private final float[] unigrams;
+	private final float[] bigrams;
+	private final float[] quadgrams;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+
+	private NGramModel(long[] unigramCounts, long[] bigramCounts, long[] quadgramCounts) {
+		this.unigrams = logProbabilities(unigramCounts);
+		this.bigrams = logProbabilities(bigramCounts);
+		this.quadgrams = logProbabilities(quadgramCounts);
+	}
+
+	/**
+	 * apprend le modele sur des textes quelconques (mots ou lignes d'un corpus)
+	 * @param texts
+	 * @return
+	 */
+	public static NGramModel learn(Iterable<? extends CharSequence> texts) {
+		long[] unigramCounts = new long[ALPHABET_SIZE];
+		long[] bigramCounts = new long[BIGRAM_COUNT];
+		long[] quadgramCounts = new long[QUADGRAM_COUNT];
+		for (CharSequence text : texts) {
+			byte[] codes = codes(DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll(""));
+			int index = 0;
+			int run = 0;
+			for (byte code : codes) {
+				if (code == NO_LETTER) {
+					run = 0;
+					continue;
+				}
+				index = index % TRIGRAM_COUNT * ALPHABET_SIZE + code;
+				run++;
+				unigramCounts[code]++;
+				if (run >= 2)
+					bigramCounts[index % BIGRAM_COUNT]++;
+				if (run >= 4)
+					quadgramCounts[index]++;
+			}
+		}
+		return new NGramModel(unigramCounts, bigramCounts, quadgramCounts);
+	}
+
+	/**
+	 * apprend le modele sur les mots du dictionnaire
+	 * @param dict
+	 * @return
+	 */
+	public static NGramModel fromDictionary(Lexicon dict) {
+		return learn(dict.getWords(""));
+	}
+
+	/**
+	 * apprend le modele sur un texte clair, ligne par ligne
+	 * @param corpus
+	 * @param encoding
+	 * @return
+	 * @throws IOException
+	 */
+	public static NGramModel fromCorpus(Path corpus, Charset encoding) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(corpus, encoding)) {
+			Iterable<String> lines = reader.lines()::iterator;
+			return learn(lines);
+		}
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * renvoie les log-probabilites des lettres, indice 0 pour 'a' ; le tableau est
+	 * partage et ne doit pas etre modifie
+	 * @return
+	 */
+	public float[] unigrams() {
+		return this.unigrams;
+	}
+
+	/**
+	 * renvoie les log-probabilites des bigrammes, indice a * 26 + b ; le tableau
+	 * est partage et ne doit pas etre modifie
+	 * @return
+	 */
+	public float[] bigrams() {
+		return this.bigrams;
+	}
+
+	/**
+	 * renvoie les log-probabilites des quadrigrammes, indice
+	 * ((a * 26 + b) * 26 + c) * 26 + d ; le tableau est partage et ne doit pas etre
+	 * modifie
+	 * @return
+	 */
+	public float[] quadgrams() {
+		return this.quadgrams;
+	}
+
+	/**
+	 * renvoie le code de chaque caractere du texte : 0 a 25 pour les lettres A-Z
+	 * (majuscules ou minuscules), -1 pour les autres caracteres
+	 * @param text
+	 * @return
+	 */
+	public static byte[] codes(CharSequence text) {
+		byte[] codes = new byte[text.length()];
+		for (int i = 0; i < codes.length; i++) {
+			char character = text.charAt(i);
+			if (character >= 'A' && character <= 'Z')
+				codes[i] = (byte) (character - 'A');
+			else if (character >= 'a' && character <= 'z')
+				codes[i] = (byte) (character - 'a');
+			else
+				codes[i] = NO_LETTER;
+		}
+		return codes;
+	}
+
+	/**
+	 * renvoie la log-vraisemblance en quadrigrammes du texte chiffre, donne par ses
+	 * codes, dechiffre avec la cle, sans creer de texte dechiffre
+	 * @param cipherCodes codes du texte chiffre
+	 * @param key         code de la lettre claire de chaque lettre chiffree
+	 * @return
+	 */
+	public double score(byte[] cipherCodes, byte[] key) {
+		double score = 0;
+		int index = 0;
+		int run = 0;
+		for (byte code : cipherCodes) {
+			if (code == NO_LETTER) {
+				run = 0;
+				continue;
+			}
+			index = index % TRIGRAM_COUNT * ALPHABET_SIZE + key[code];
+			if (++run >= 4)
+				score += quadgrams[index];
+		}
+		return score;
+	}
+
+	/**
+	 * renvoie la log-vraisemblance en quadrigrammes du texte chiffre dechiffre avec
+	 * l'alphabet fourni
+	 * @param cipherText
+	 * @param alphabet
+	 * @return
+	 */
+	public double score(CharSequence cipherText, String alphabet) {
+		return score(codes(cipherText), key(alphabet));
+	}
+
+	/**
+	 * renvoie l'alphabet de dechiffrement associant les lettres chiffrees, de la
+	 * plus frequente a la moins frequente, aux lettres les plus probables du modele
+	 * @param cipherText
+	 * @return
+	 */
+	public String frequencyAlphabet(CharSequence cipherText) {
+		return frequencyAlphabet(cipherText, letter -> unigrams[letter]);
+	}
+
+	/**
+	 * renvoie l'alphabet de dechiffrement associant les lettres chiffrees, de la
+	 * plus frequente a la moins frequente, aux lettres claires de plus haut score
+	 * @param cipherText
+	 * @param plainScore score de chaque lettre claire (code 0 a 25)
+	 * @return
+	 */
+	static String frequencyAlphabet(CharSequence cipherText, IntToDoubleFunction plainScore) {
+		int[] counts = new int[ALPHABET_SIZE];
+		for (byte code : codes(cipherText)) {
+			if (code != NO_LETTER)
+				counts[code]++;
+		}
+		Integer[] cipherLetters = new Integer[ALPHABET_SIZE];
+		Integer[] plainLetters = new Integer[ALPHABET_SIZE];
+		for (int i = 0; i < ALPHABET_SIZE; i++) {
+			cipherLetters[i] = i;
+			plainLetters[i] = i;
+		}
+		Arrays.sort(cipherLetters, Comparator.comparingInt((Integer letter) -> -counts[letter]));
+		Arrays.sort(plainLetters, Comparator.comparingDouble((Integer letter) -> -plainScore.applyAsDouble(letter)));
+		char[] alphabet = new char[ALPHABET_SIZE];
+		for (int i = 0; i < ALPHABET_SIZE; i++) {
+			alphabet[cipherLetters[i]] = (char) ('A' + plainLetters[i]);
+		}
+		return new String(alphabet);
+	}
+
+	/**
+	 * renvoie la cle correspondant a l'alphabet de dechiffrement (verifie)
+	 * @param alphabet
+	 * @return code de la lettre claire de chaque lettre chiffree
+	 */
+	public static byte[] key(String alphabet) {
+		return codes(SubstitutionTable.of(alphabet).getAlphabet());
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	private static float[] logProbabilities(long[] counts) {
+		long total = 0;
+		for (long count : counts) {
+			total += count;
+		}
+		float[] logProbabilities = new float[counts.length];
+		double floor = Math.log(FLOOR / Math.max(total, 1));
+		for (int i = 0; i < counts.length; i++) {
+			logProbabilities[i] = (float) (counts[i] > 0 ? Math.log((double) counts[i] / total) : floor);
+		}
+		return logProbabilities;
+	}
+}
@@ -0,0 +1,129 @@
+package cryptanalysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.regex.Pattern;
+
+import tree.Lexicon;
+
+/**
+ * index des mots d'un dictionnaire par motif de repetition des lettres : chaque
+ * lettre est remplacee par le rang de sa premiere apparition ('a' pour la
+ * premiere lettre distincte, 'b' pour la deuxieme...), ainsi "elle" et "alla"
+ * ont le meme motif "abba". Une substitution monoalphabetique conserve ce motif,
+ * les mots candidats pour un mot chiffre sont donc ceux de meme motif.
+ * @author virgi
+ *
+ */
+public final class PatternIndex {
+
+	private static final Pattern PATTERN_ALL_WORD = Pattern.compile("(\\w+)");
+	private static final Map<Lexicon, PatternIndex> SHARED = new WeakHashMap<>();
+
+	private final Map<String, List<String>> wordsByPattern;
+	private final int dictionarySize;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+
+	/**
+	 * construit l'index de tous les mots du dictionnaire composes uniquement de
+	 * lettres et chiffres
+	 * @param dict
+	 */
+	public PatternIndex(Lexicon dict) {
+		this.dictionarySize = dict.size();
+		Map<String, List<String>> index = new HashMap<>();
+		for (String word : dict.getWords("")) {
+			if (!PATTERN_ALL_WORD.matcher(word).matches())
+				continue;
+			index.computeIfAbsent(pattern(word), k -> new ArrayList<>()).add(word);
+		}
+		for (Map.Entry<String, List<String>> entry : index.entrySet()) {
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+		}
+		this.wordsByPattern = index;
+	}
+
+	/**
+	 * renvoie l'index partage du dictionnaire, construit au premier appel puis
+	 * reconstruit si des mots ont ete ajoutes au dictionnaire depuis
+	 * @param dict
+	 * @return
+	 */
+	public static PatternIndex of(Lexicon dict) {
+		synchronized (SHARED) {
+			PatternIndex index = SHARED.get(dict);
+			if (index == null || index.dictionarySize != dict.size()) {
+				index = new PatternIndex(dict);
+				SHARED.put(dict, index);
+			}
+			return index;
+		}
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * renvoie le motif de repetition du mot, par exemple "abba" pour "elle"
+	 * @param word
+	 * @return
+	 */
+	public static String pattern(CharSequence word) {
+		char[] pattern = new char[word.length()];
+		char[] distinct = new char[word.length()];
+		int distinctCount = 0;
+		for (int i = 0; i < word.length(); i++) {
+			char character = word.charAt(i);
+			int rank = 0;
+			while (rank < distinctCount && distinct[rank] != character)
+				rank++;
+			if (rank == distinctCount)
+				distinct[distinctCount++] = character;
+			pattern[i] = (char) ('a' + rank);
+		}
+		return new String(pattern);
+	}
+
+	/**
+	 * renvoie si le motif contient au moins une lettre repetee
+	 * @param pattern
+	 * @return
+	 */
+	public static boolean hasRepetition(String pattern) {
+		char max = 'a' - 1;
+		for (int i = 0; i < pattern.length(); i++) {
+			if (pattern.charAt(i) <= max)
+				return true;
+			max = pattern.charAt(i);
+		}
+		return false;
+	}
+
+	/**
+	 * renvoie, dans l'ordre alphabetique, les mots du dictionnaire ayant le meme
+	 * motif que le mot fourni
+	 * @param word
+	 * @return une liste non modifiable, vide si aucun mot ne correspond
+	 */
+	public List<String> candidates(CharSequence word) {
+		return candidatesOfPattern(pattern(word));
+	}
+
+	/**
+	 * renvoie, dans l'ordre alphabetique, les mots du dictionnaire ayant le motif
+	 * fourni
+	 * @param pattern
+	 * @return une liste non modifiable, vide si aucun mot ne correspond
+	 */
+	public List<String> candidatesOfPattern(String pattern) {
+		return wordsByPattern.getOrDefault(pattern, Collections.emptyList());
+	}
+}
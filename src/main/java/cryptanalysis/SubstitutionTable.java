@@ -0,0 +1,177 @@
+package cryptanalysis;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Objects;
+
+/**
+ * table de substitution precalculee a partir d'un alphabet, verifie une seule
+ * fois a la construction. Comme applySubstitution, la substitution conserve les
+ * espaces et retours a la ligne, remplace chaque lettre majuscule A-Z par la
+ * lettre correspondante de l'alphabet et supprime tous les autres caracteres.
+ * @author virgi
+ *
+ */
+public final class SubstitutionTable {
+	private static final int ALPHABET_SIZE = 26;
+	private static final int TABLE_SIZE = 128;
+	private static final char DROPPED = 0;
+
+	private final String alphabet;
+	private final char[] table;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+
+	private SubstitutionTable(String alphabet) {
+		this.alphabet = alphabet;
+		this.table = new char[TABLE_SIZE];
+		this.table[' '] = ' ';
+		this.table['\n'] = '\n';
+		for (int i = 0; i < ALPHABET_SIZE; i++) {
+			this.table['A' + i] = alphabet.charAt(i);
+		}
+	}
+
+	/**
+	 * construit la table de l'alphabet fourni, qui doit etre compose des 26 lettres
+	 * sans repetition, en majuscules ou minuscules
+	 * @param alphabet
+	 * @return
+	 * @throws IllegalArgumentException si l'alphabet est incorrect
+	 */
+	public static SubstitutionTable of(String alphabet) {
+		if (alphabet == null || alphabet.length() != ALPHABET_SIZE)
+			throw new IllegalArgumentException("incorrect alphabet.");
+		boolean[] seen = new boolean[ALPHABET_SIZE];
+		for (int i = 0; i < ALPHABET_SIZE; i++) {
+			char character = alphabet.charAt(i);
+			int letter;
+			if (character >= 'A' && character <= 'Z')
+				letter = character - 'A';
+			else if (character >= 'a' && character <= 'z')
+				letter = character - 'a';
+			else
+				throw new IllegalArgumentException("incorrect alphabet.");
+			if (seen[letter])
+				throw new IllegalArgumentException("incorrect alphabet.");
+			seen[letter] = true;
+		}
+		return new SubstitutionTable(alphabet);
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * renvoie l'alphabet de la table
+	 * @return
+	 */
+	public String getAlphabet() {
+		return this.alphabet;
+	}
+
+	/**
+	 * renvoie le caractere substitue, ou 0 si le caractere est supprime
+	 * @param character
+	 * @return
+	 */
+	public char substitute(char character) {
+		return character < TABLE_SIZE ? table[character] : DROPPED;
+	}
+
+	private char substitute(byte character) {
+		return character >= 0 ? table[character] : DROPPED;
+	}
+
+	/**
+	 * renvoie le texte substitue
+	 * @param text
+	 * @return
+	 */
+	public String apply(CharSequence text) {
+		char[] result = new char[text.length()];
+		int length = 0;
+		for (int i = 0; i < result.length; i++) {
+			char substituted = substitute(text.charAt(i));
+			if (substituted != DROPPED)
+				result[length++] = substituted;
+		}
+		return new String(result, 0, length);
+	}
+
+	/**
+	 * ecrit le texte substitue dans le tampon a partir de sa position courante
+	 * @param text
+	 * @param out
+	 * @return le nombre de caracteres ecrits
+	 * @throws java.nio.BufferOverflowException si le tampon est trop petit
+	 */
+	public int apply(CharSequence text, CharBuffer out) {
+		int start = out.position();
+		for (int i = 0; i < text.length(); i++) {
+			char substituted = substitute(text.charAt(i));
+			if (substituted != DROPPED)
+				out.put(substituted);
+		}
+		return out.position() - start;
+	}
+
+	/**
+	 * lit les octets ASCII restant dans le tampon text et ecrit le texte substitue
+	 * dans le tampon out
+	 * @param text
+	 * @param out
+	 * @return le nombre d'octets ecrits
+	 * @throws java.nio.BufferOverflowException si le tampon out est trop petit
+	 */
+	public int apply(ByteBuffer text, ByteBuffer out) {
+		int start = out.position();
+		while (text.hasRemaining()) {
+			char substituted = substitute(text.get());
+			if (substituted != DROPPED)
+				out.put((byte) substituted);
+		}
+		return out.position() - start;
+	}
+
+	/**
+	 * substitue sur place les octets ASCII text[from..to[ ; les octets supprimes
+	 * sont retires en decalant la suite vers la gauche
+	 * @param text
+	 * @param from
+	 * @param to
+	 * @return l'indice de fin du texte substitue, entre from et to
+	 */
+	public int applyInPlace(byte[] text, int from, int to) {
+		Objects.checkFromToIndex(from, to, text.length);
+		int end = from;
+		for (int i = from; i < to; i++) {
+			char substituted = substitute(text[i]);
+			if (substituted != DROPPED)
+				text[end++] = (byte) substituted;
+		}
+		return end;
+	}
+
+	/**
+	 * substitue sur place les caracteres text[from..to[ ; les caracteres supprimes
+	 * sont retires en decalant la suite vers la gauche
+	 * @param text
+	 * @param from
+	 * @param to
+	 * @return l'indice de fin du texte substitue, entre from et to
+	 */
+	public int applyInPlace(char[] text, int from, int to) {
+		Objects.checkFromToIndex(from, to, text.length);
+		int end = from;
+		for (int i = from; i < to; i++) {
+			char substituted = substitute(text[i]);
+			if (substituted != DROPPED)
+				text[end++] = substituted;
+		}
+		return end;
+	}
+}
@@ -0,0 +1,331 @@
+package cryptanalysis;
+
+import java.util.SplittableRandom;
+
+/**
+ * recherche d'un alphabet de dechiffrement par recuit simule : a chaque etape,
+ * les lettres claires de deux lettres chiffrees sont echangees et l'echange est
+ * garde s'il ameliore le score, ou avec une probabilite decroissant avec la
+ * temperature sinon. Avec une temperature nulle, c'est une montee de colline.
+ * Le score est la log-vraisemblance des bigrammes du texte dechiffre : le nombre
+ * de chaque bigramme chiffre est compte une fois pour toutes, et un echange ne
+ * modifie que les lignes et colonnes des deux lettres echangees. Construit a
+ * partir d'un NGramModel, le recuit est suivi d'une montee de colline sur la
+ * log-vraisemblance en quadrigrammes (celle de NGramModel.score), plus
+ * discriminante que les bigrammes et calculee de la meme facon : chaque
+ * quadrigramme chiffre distinct est compte une fois, et un echange ne recalcule
+ * que ceux contenant l'une des deux lettres.
+ * @author virgi
+ *
+ */
+public final class SwapKeySearch implements KeySearchEngine {
+	private static final int ALPHABET_SIZE = 26;
+	private static final long DEFAULT_ITERATIONS = 2_000_000;
+	private static final double DEFAULT_TEMPERATURE = 20;
+
+	private final int[] bigramCounts;
+	private final float[] logProbabilities;
+	private final long iterations;
+	private final double startTemperature;
+	private final long seed;
+	private final Quadgrams quadgrams;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	/**
+	 * constructeur avec les parametres par defaut du recuit
+	 * @param cryptogram
+	 * @param logProbabilities log-probabilites des bigrammes clairs, indice
+	 *                         premiere * 26 + seconde lettre
+	 */
+	public SwapKeySearch(String cryptogram, float[] logProbabilities) {
+		this(cryptogram, logProbabilities, DEFAULT_ITERATIONS, DEFAULT_TEMPERATURE, 0);
+	}
+
+	/**
+	 * constructeur avec les parametres par defaut du recuit, le score utilisant les
+	 * bigrammes du modele ; le resultat est affine avec ses quadrigrammes
+	 * @param cryptogram
+	 * @param model
+	 */
+	public SwapKeySearch(String cryptogram, NGramModel model) {
+		this(cryptogram, model, DEFAULT_ITERATIONS, DEFAULT_TEMPERATURE, 0);
+	}
+
+	/**
+	 * constructeur du recuit, le score utilisant les bigrammes du modele ; le
+	 * resultat est affine avec ses quadrigrammes
+	 * @param cryptogram
+	 * @param model
+	 * @param iterations
+	 * @param startTemperature
+	 * @param seed
+	 */
+	public SwapKeySearch(String cryptogram, NGramModel model, long iterations, double startTemperature, long seed) {
+		this(cryptogram, model.bigrams(), model, iterations, startTemperature, seed);
+	}
+
+	/**
+	 * constructeur du recuit
+	 * @param cryptogram       texte chiffre, seuls les bigrammes de lettres A-Z
+	 *                         consecutives sont comptes
+	 * @param logProbabilities log-probabilites des bigrammes clairs, indice
+	 *                         premiere * 26 + seconde lettre
+	 * @param iterations       nombre d'echanges evalues
+	 * @param startTemperature temperature initiale, decroissant lineairement
+	 *                         jusqu'a 0 ; 0 pour une montee de colline
+	 * @param seed             graine du generateur aleatoire
+	 */
+	public SwapKeySearch(String cryptogram, float[] logProbabilities, long iterations, double startTemperature,
+			long seed) {
+		this(cryptogram, logProbabilities, null, iterations, startTemperature, seed);
+	}
+
+	private SwapKeySearch(String cryptogram, float[] logProbabilities, NGramModel quadgramModel, long iterations,
+			double startTemperature, long seed) {
+		if (logProbabilities.length != ALPHABET_SIZE * ALPHABET_SIZE)
+			throw new IllegalArgumentException("26 x 26 bigram log-probabilities expected");
+		if (iterations < 0 || startTemperature < 0)
+			throw new IllegalArgumentException("iterations and temperature must be positive");
+		this.bigramCounts = bigramCounts(cryptogram);
+		this.logProbabilities = logProbabilities.clone();
+		this.iterations = iterations;
+		this.startTemperature = startTemperature;
+		this.seed = seed;
+		this.quadgrams = quadgramModel == null ? null
+				: new Quadgrams(NGramModel.codes(cryptogram), quadgramModel.quadgrams());
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	@Override
+	public String search(String startAlphabet) {
+		int[] key = toKey(startAlphabet);
+		int[] bestKey = key.clone();
+		double score = score(key);
+		double bestScore = score;
+		SplittableRandom random = new SplittableRandom(seed);
+
+		for (long i = 0; i < iterations; i++) {
+			int a = random.nextInt(ALPHABET_SIZE);
+			int b = random.nextInt(ALPHABET_SIZE - 1);
+			if (b >= a)
+				b++;
+			double delta = swapDelta(key, a, b);
+			double temperature = startTemperature * (iterations - i) / iterations;
+			if (delta >= 0 || temperature > 0 && random.nextDouble() < Math.exp(delta / temperature)) {
+				int plain = key[a];
+				key[a] = key[b];
+				key[b] = plain;
+				score += delta;
+				if (score > bestScore) {
+					bestScore = score;
+					System.arraycopy(key, 0, bestKey, 0, ALPHABET_SIZE);
+				}
+			}
+		}
+		if (quadgrams != null)
+			polish(bestKey);
+		return toAlphabet(bestKey);
+	}
+
+	/**
+	 * renvoie la log-vraisemblance du texte dechiffre avec l'alphabet fourni
+	 * @param alphabet
+	 * @return
+	 */
+	public double score(String alphabet) {
+		return score(toKey(alphabet));
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	private double score(int[] key) {
+		double score = 0;
+		for (int i = 0; i < ALPHABET_SIZE; i++) {
+			for (int j = 0; j < ALPHABET_SIZE; j++) {
+				score += bigramCounts[i * ALPHABET_SIZE + j] * logProbabilities[key[i] * ALPHABET_SIZE + key[j]];
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * variation du score si les lettres claires des lettres chiffrees a et b sont
+	 * echangees : seuls les bigrammes contenant a ou b changent
+	 */
+	private double swapDelta(int[] key, int a, int b) {
+		int plainA = key[a];
+		int plainB = key[b];
+		int rowA = a * ALPHABET_SIZE;
+		int rowB = b * ALPHABET_SIZE;
+		double delta = 0;
+		for (int j = 0; j < ALPHABET_SIZE; j++) {
+			int plain = key[j];
+			int swapped = j == a ? plainB : j == b ? plainA : plain;
+			delta += bigramCounts[rowA + j] * (logProbabilities[plainB * ALPHABET_SIZE + swapped]
+					- logProbabilities[plainA * ALPHABET_SIZE + plain]);
+			delta += bigramCounts[rowB + j] * (logProbabilities[plainA * ALPHABET_SIZE + swapped]
+					- logProbabilities[plainB * ALPHABET_SIZE + plain]);
+			if (j != a && j != b) {
+				int row = plain * ALPHABET_SIZE;
+				delta += bigramCounts[j * ALPHABET_SIZE + a] * (logProbabilities[row + plainB] - logProbabilities[row + plainA]);
+				delta += bigramCounts[j * ALPHABET_SIZE + b] * (logProbabilities[row + plainA] - logProbabilities[row + plainB]);
+			}
+		}
+		return delta;
+	}
+
+	/**
+	 * montee de colline sur les quadrigrammes : chaque echange de deux lettres
+	 * claires qui ameliore le score est garde, jusqu'a ce qu'aucun ne l'ameliore
+	 */
+	private void polish(int[] key) {
+		boolean improved = true;
+		while (improved) {
+			improved = false;
+			for (int a = 0; a < ALPHABET_SIZE; a++) {
+				for (int b = a + 1; b < ALPHABET_SIZE; b++) {
+					if (quadgrams.swapDelta(key, a, b) > 0) {
+						int plain = key[a];
+						key[a] = key[b];
+						key[b] = plain;
+						improved = true;
+					}
+				}
+			}
+		}
+	}
+
+	private static int[] bigramCounts(String cryptogram) {
+		int[] counts = new int[ALPHABET_SIZE * ALPHABET_SIZE];
+		for (int i = 1; i < cryptogram.length(); i++) {
+			int first = cryptogram.charAt(i - 1) - 'A';
+			int second = cryptogram.charAt(i) - 'A';
+			if (first >= 0 && first < ALPHABET_SIZE && second >= 0 && second < ALPHABET_SIZE)
+				counts[first * ALPHABET_SIZE + second]++;
+		}
+		return counts;
+	}
+
+	/**
+	 * convertit l'alphabet (verifie) en indices des lettres claires
+	 */
+	private static int[] toKey(String alphabet) {
+		String upper = SubstitutionTable.of(alphabet).getAlphabet().toUpperCase();
+		int[] key = new int[ALPHABET_SIZE];
+		for (int i = 0; i < ALPHABET_SIZE; i++) {
+			key[i] = upper.charAt(i) - 'A';
+		}
+		return key;
+	}
+
+	private static String toAlphabet(int[] key) {
+		char[] alphabet = new char[ALPHABET_SIZE];
+		for (int i = 0; i < ALPHABET_SIZE; i++) {
+			alphabet[i] = (char) ('A' + key[i]);
+		}
+		return new String(alphabet);
+	}
+
+	/**
+	 * quadrigrammes chiffres distincts du texte, avec leur nombre d'occurrences,
+	 * et pour chaque lettre chiffree la liste des quadrigrammes qui la contiennent
+	 */
+	private static final class Quadgrams {
+		private final float[] logProbabilities;
+		private final byte[] letters;
+		private final int[] counts;
+		private final int[][] containing;
+
+		private Quadgrams(byte[] cipherCodes, float[] logProbabilities) {
+			this.logProbabilities = logProbabilities;
+			int quadgramCount = ALPHABET_SIZE * ALPHABET_SIZE * ALPHABET_SIZE * ALPHABET_SIZE;
+			int[] occurrences = new int[quadgramCount];
+			int index = 0;
+			int run = 0;
+			for (byte code : cipherCodes) {
+				if (code < 0) {
+					run = 0;
+					continue;
+				}
+				index = index % (quadgramCount / ALPHABET_SIZE) * ALPHABET_SIZE + code;
+				if (++run >= 4)
+					occurrences[index]++;
+			}
+
+			int distinct = 0;
+			for (int occurrence : occurrences) {
+				if (occurrence > 0)
+					distinct++;
+			}
+			letters = new byte[4 * distinct];
+			counts = new int[distinct];
+			int[] perLetter = new int[ALPHABET_SIZE];
+			int q = 0;
+			for (int quadgram = 0; quadgram < quadgramCount; quadgram++) {
+				if (occurrences[quadgram] == 0)
+					continue;
+				counts[q] = occurrences[quadgram];
+				for (int i = 3, rest = quadgram; i >= 0; i--, rest /= ALPHABET_SIZE) {
+					letters[4 * q + i] = (byte) (rest % ALPHABET_SIZE);
+				}
+				for (int letter = 0; letter < ALPHABET_SIZE; letter++) {
+					if (contains(q, letter))
+						perLetter[letter]++;
+				}
+				q++;
+			}
+			containing = new int[ALPHABET_SIZE][];
+			for (int letter = 0; letter < ALPHABET_SIZE; letter++) {
+				containing[letter] = new int[perLetter[letter]];
+				perLetter[letter] = 0;
+			}
+			for (q = 0; q < distinct; q++) {
+				for (int letter = 0; letter < ALPHABET_SIZE; letter++) {
+					if (contains(q, letter))
+						containing[letter][perLetter[letter]++] = q;
+				}
+			}
+		}
+
+		/**
+		 * variation du score si les lettres claires des lettres chiffrees a et b
+		 * sont echangees : seuls les quadrigrammes contenant a ou b changent
+		 */
+		private double swapDelta(int[] key, int a, int b) {
+			double delta = 0;
+			for (int q : containing[a]) {
+				delta += delta(q, key, a, b);
+			}
+			for (int q : containing[b]) {
+				if (!contains(q, a))
+					delta += delta(q, key, a, b);
+			}
+			return delta;
+		}
+
+		private double delta(int q, int[] key, int a, int b) {
+			int before = 0;
+			int after = 0;
+			for (int i = 4 * q; i < 4 * q + 4; i++) {
+				int letter = letters[i];
+				int plain = key[letter];
+				before = before * ALPHABET_SIZE + plain;
+				after = after * ALPHABET_SIZE + (letter == a ? key[b] : letter == b ? key[a] : plain);
+			}
+			return counts[q] * ((double) logProbabilities[after] - logProbabilities[before]);
+		}
+
+		private boolean contains(int q, int letter) {
+			return letters[4 * q] == letter || letters[4 * q + 1] == letter || letters[4 * q + 2] == letter
+					|| letters[4 * q + 3] == letter;
+		}
+	}
+}
@@ -0,0 +1,376 @@
+package tree;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * graphe acyclique de mots minimal (DAWG / DAFSA). Contrairement a l'arbre
+ * lexicographique les suffixes communs (-ation, -ement, conjugaisons...) ne sont
+ * stockes qu'une seule fois. Le graphe est construit de maniere incrementale a
+ * partir d'une liste de mots triee, puis range dans des tableaux primitifs : les
+ * transitions de l'etat s sont les transitions edgeStart[s] a
+ * edgeStart[s + 1] - 1, rangees par ordre de lettre.
+ * @author virgi
+ *
+ */
+public final class Dawg implements Lexicon {
+
+	private static final int ROOT = 0;
+
+	private final int[] edgeStart;
+	private final char[] edgeLabel;
+	private final int[] edgeTarget;
+	private final long[] finals;
+	private final int size;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	private Dawg(int[] edgeStart, char[] edgeLabel, int[] edgeTarget, long[] finals, int size) {
+		this.edgeStart = edgeStart;
+		this.edgeLabel = edgeLabel;
+		this.edgeTarget = edgeTarget;
+		this.finals = finals;
+		this.size = size;
+	}
+
+	/**
+	 * construit le graphe a partir de mots tries par ordre croissant de caracteres
+	 * (ordre de String.compareTo). Les mots vides et les doublons consecutifs sont
+	 * ignores.
+	 * @param sortedWords
+	 * @return
+	 * @throws IllegalArgumentException si les mots ne sont pas tries
+	 */
+	public static Dawg fromSorted(Iterable<? extends CharSequence> sortedWords) {
+		Builder builder = new Builder();
+		for (CharSequence word : sortedWords) {
+			builder.add(word);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * construit le graphe a partir d'un fichier trie contenant un mot par ligne
+	 * @param path
+	 * @return
+	 * @throws IOException
+	 */
+	public static Dawg load(Path path) throws IOException {
+		Builder builder = new Builder();
+		try (Stream<String> lines = Files.lines(path, StandardCharsets.UTF_8)) {
+			lines.forEachOrdered(builder::add);
+		}
+		return builder.build();
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * renvoie le nombre d'etats du graphe, etat initial compris
+	 * @return
+	 */
+	public int stateCount() {
+		return this.edgeStart.length - 1;
+	}
+
+	/**
+	 * renvoie le nombre de transitions du graphe
+	 * @return
+	 */
+	public int edgeCount() {
+		return this.edgeLabel.length;
+	}
+
+	@Override
+	public boolean containsWord(String word) {
+		// meme convention que LexicographicTree
+		if (word == null)
+			return true;
+		return containsWord(word, 0, word.length());
+	}
+
+	@Override
+	public boolean containsWord(CharSequence word, int from, int to) {
+		Objects.checkFromToIndex(from, to, word.length());
+		if (from == to)
+			return false;
+		int state = walk(word, from, to);
+		return state >= 0 && isFinal(state);
+	}
+
+	@Override
+	public boolean containsWord(byte[] buf, int off, int len) {
+		Objects.checkFromIndexSize(off, len, buf.length);
+		if (len == 0)
+			return false;
+		int state = ROOT;
+		for (int i = off; i < off + len && state >= 0; i++) {
+			state = nextByCode(state, LetterCodes.code(buf[i]));
+		}
+		return state >= 0 && isFinal(state);
+	}
+
+	@Override
+	public boolean containsWord(ByteBuffer buf, int off, int len) {
+		Objects.checkFromIndexSize(off, len, buf.limit());
+		if (len == 0)
+			return false;
+		int state = ROOT;
+		for (int i = off; i < off + len && state >= 0; i++) {
+			state = nextByCode(state, LetterCodes.code(buf.get(i)));
+		}
+		return state >= 0 && isFinal(state);
+	}
+
+	@Override
+	public boolean isPrefix(String prefix) {
+		if (prefix == null)
+			return false;
+		int state = walk(prefix, 0, prefix.length());
+		return state >= 0 && edgeStart[state + 1] > edgeStart[state];
+	}
+
+	@Override
+	public List<String> getWords(String givenPrefix) {
+		String prefix = givenPrefix.trim();
+		List<String> words = new ArrayList<>();
+		int state = walk(prefix, 0, prefix.length());
+		if (state < 0)
+			return words;
+		collectWords(state, new StringBuilder(prefix), Integer.MAX_VALUE, words);
+		return words;
+	}
+
+	@Override
+	public List<String> getWordsOfLength(int length) {
+		List<String> words = new ArrayList<>();
+		if (length <= 0)
+			return words;
+		collectWords(ROOT, new StringBuilder(length), length, words);
+		return words;
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	private boolean isFinal(int state) {
+		return (finals[state >>> 6] & (1L << state)) != 0;
+	}
+
+	/**
+	 * renvoie l'etat atteint depuis state par la lettre, -1 s'il n'y a pas de
+	 * transition
+	 */
+	private int next(int state, char character) {
+		int edge = Arrays.binarySearch(edgeLabel, edgeStart[state], edgeStart[state + 1], character);
+		return edge < 0 ? -1 : edgeTarget[edge];
+	}
+
+	private int nextByCode(int state, int code) {
+		return code == LetterCodes.NONE ? -1 : next(state, LetterCodes.letter(code));
+	}
+
+	private int walk(CharSequence word, int from, int to) {
+		int state = ROOT;
+		for (int i = from; i < to && state >= 0; i++) {
+			state = next(state, word.charAt(i));
+		}
+		return state;
+	}
+
+	private void collectWords(int state, StringBuilder buffer, int length, List<String> words) {
+		boolean exactLength = length != Integer.MAX_VALUE;
+		if (isFinal(state) && (!exactLength || buffer.length() == length)) {
+			words.add(buffer.toString());
+		}
+		if (buffer.length() >= length)
+			return;
+		for (int edge = edgeStart[state]; edge < edgeStart[state + 1]; edge++) {
+			buffer.append(edgeLabel[edge]);
+			collectWords(edgeTarget[edge], buffer, length, words);
+			buffer.setLength(buffer.length() - 1);
+		}
+	}
+
+	/*
+	 * BUILDER
+	 */
+
+	/**
+	 * construction incrementale du graphe minimal (algorithme de Daciuk et al.
+	 * pour une entree triee) : seule la branche du dernier mot reste modifiable,
+	 * chaque etat qui la quitte est remplace par un etat equivalent deja enregistre
+	 * s'il en existe un
+	 */
+	private static final class Builder {
+		private final State root = new State();
+		private final Map<State, State> register = new HashMap<>();
+		private final List<State> branch = new ArrayList<>();
+		private final StringBuilder previous = new StringBuilder();
+		private int size;
+
+		private Builder() {
+			branch.add(root);
+		}
+
+		private void add(CharSequence word) {
+			if (LexicographicTree.isBlank(word, 0, word.length()))
+				return;
+			int common = 0;
+			int max = Math.min(word.length(), previous.length());
+			while (common < max && word.charAt(common) == previous.charAt(common))
+				common++;
+			if (common == word.length() && common == previous.length())
+				return;
+			if (common < max ? word.charAt(common) < previous.charAt(common) : word.length() < previous.length())
+				throw new IllegalArgumentException("words are not sorted: " + word + " after " + previous);
+
+			minimize(common);
+			State state = branch.get(common);
+			for (int i = common; i < word.length(); i++) {
+				State next = new State();
+				state.append(word.charAt(i), next);
+				branch.add(next);
+				state = next;
+			}
+			state.isFinal = true;
+			previous.setLength(0);
+			previous.append(word);
+			size++;
+		}
+
+		/**
+		 * remplace les etats de la branche situes sous la profondeur donnee par leur
+		 * equivalent enregistre
+		 */
+		private void minimize(int depth) {
+			for (int i = branch.size() - 1; i > depth; i--) {
+				State child = branch.remove(i);
+				State registered = register.putIfAbsent(child, child);
+				if (registered != null) {
+					branch.get(i - 1).replaceLastTarget(registered);
+				}
+			}
+		}
+
+		private Dawg build() {
+			minimize(0);
+			Map<State, Integer> ids = new IdentityHashMap<>();
+			List<State> states = new ArrayList<>();
+			Deque<State> queue = new ArrayDeque<>();
+			ids.put(root, 0);
+			states.add(root);
+			queue.add(root);
+			int edgeCount = 0;
+			while (!queue.isEmpty()) {
+				State state = queue.poll();
+				edgeCount += state.count;
+				for (int e = 0; e < state.count; e++) {
+					State target = state.targets[e];
+					if (!ids.containsKey(target)) {
+						ids.put(target, states.size());
+						states.add(target);
+						queue.add(target);
+					}
+				}
+			}
+
+			int[] edgeStart = new int[states.size() + 1];
+			char[] edgeLabel = new char[edgeCount];
+			int[] edgeTarget = new int[edgeCount];
+			long[] finals = new long[(states.size() + 63) >>> 6];
+			int edge = 0;
+			for (int s = 0; s < states.size(); s++) {
+				State state = states.get(s);
+				edgeStart[s] = edge;
+				if (state.isFinal)
+					finals[s >>> 6] |= 1L << s;
+				for (int e = 0; e < state.count; e++) {
+					edgeLabel[edge] = state.labels[e];
+					edgeTarget[edge] = ids.get(state.targets[e]);
+					edge++;
+				}
+			}
+			edgeStart[states.size()] = edge;
+			return new Dawg(edgeStart, edgeLabel, edgeTarget, finals, size);
+		}
+	}
+
+	/**
+	 * etat du graphe en cours de construction. Deux etats sont egaux s'ils ont la
+	 * meme finalite et les memes transitions vers les memes etats (deja minimises)
+	 */
+	private static final class State {
+		private static final char[] NO_LABEL = new char[0];
+		private static final State[] NO_TARGET = new State[0];
+
+		private boolean isFinal;
+		private char[] labels = NO_LABEL;
+		private State[] targets = NO_TARGET;
+		private int count;
+
+		private void append(char label, State target) {
+			if (count == labels.length) {
+				int capacity = Math.max(2, count * 2);
+				labels = Arrays.copyOf(labels, capacity);
+				targets = Arrays.copyOf(targets, capacity);
+			}
+			labels[count] = label;
+			targets[count] = target;
+			count++;
+		}
+
+		private void replaceLastTarget(State target) {
+			targets[count - 1] = target;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (this == object)
+				return true;
+			if (!(object instanceof State))
+				return false;
+			State other = (State) object;
+			if (isFinal != other.isFinal || count != other.count)
+				return false;
+			for (int i = 0; i < count; i++) {
+				if (labels[i] != other.labels[i] || targets[i] != other.targets[i])
+					return false;
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = isFinal ? 1 : 0;
+			for (int i = 0; i < count; i++) {
+				hash = 31 * hash + labels[i];
+				hash = 31 * hash + System.identityHashCode(targets[i]);
+			}
+			return hash;
+		}
+	}
+}
@@ -0,0 +1,308 @@
+package tree;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * version figee (lecture seule) d'un arbre lexicographique. Les noeuds sont
+ * numerotes en largeur, la racine porte le numero 0 et les enfants du noeud i
+ * sont les noeuds firstChild[i] a firstChild[i + 1] - 1, ranges par ordre de
+ * lettre. L'arbre entier tient dans trois tableaux primitifs : la lettre de
+ * chaque noeud, l'indice de son premier enfant et un bitset des noeuds finaux.
+ * Ces tableaux sont lus a travers des buffers NIO, ce qui permet de repondre aux
+ * requetes directement depuis un fichier instantane projete en memoire (voir
+ * save et map).
+ * @author virgi
+ *
+ */
+public final class FrozenLexicographicTree implements Lexicon {
+
+	private static final int ROOT = 0;
+
+	/*
+	 * format du fichier instantane (little-endian) : entete de 16 octets (magic,
+	 * version, nombre de mots, nombre de noeuds) puis les finals (long), les
+	 * firstChild (int) et les lettres (char), dans cet ordre pour rester aligne
+	 */
+	private static final int MAGIC = 0x4C585431; // "LXT1"
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 16;
+
+	private final CharBuffer labels;
+	private final IntBuffer firstChild;
+	private final LongBuffer finals;
+	private final int nodeCount;
+	private final int size;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	private FrozenLexicographicTree(CharBuffer labels, IntBuffer firstChild, LongBuffer finals, int size) {
+		this.labels = labels;
+		this.firstChild = firstChild;
+		this.finals = finals;
+		this.nodeCount = labels.limit();
+		this.size = size;
+	}
+
+	/**
+	 * construit la version figee de l'arbre dont la racine est fournie, en le
+	 * parcourant en largeur
+	 * @param root
+	 * @param size
+	 * @return
+	 */
+	static FrozenLexicographicTree of(Node root, int size) {
+		List<Node> order = new ArrayList<>();
+		order.add(root);
+		int[] firstChild = new int[16];
+		for (int i = 0; i < order.size(); i++) {
+			if (i + 1 >= firstChild.length) {
+				firstChild = Arrays.copyOf(firstChild, firstChild.length * 2);
+			}
+			Node node = order.get(i);
+			firstChild[i] = order.size();
+			for (int c = 0; c < node.childCount(); c++) {
+				order.add(node.childAt(c));
+			}
+		}
+		int nodeCount = order.size();
+		firstChild = Arrays.copyOf(firstChild, nodeCount + 1);
+		firstChild[nodeCount] = nodeCount;
+
+		char[] labels = new char[nodeCount];
+		long[] finals = new long[finalsLength(nodeCount)];
+		for (int i = 0; i < nodeCount; i++) {
+			Node node = order.get(i);
+			labels[i] = node.getLetter();
+			if (node.isFinal()) {
+				finals[i >>> 6] |= 1L << i;
+			}
+		}
+		return new FrozenLexicographicTree(CharBuffer.wrap(labels), IntBuffer.wrap(firstChild),
+				LongBuffer.wrap(finals), size);
+	}
+
+	/**
+	 * projette en memoire un fichier instantane ecrit par save. Aucun noeud n'est
+	 * reconstruit : les requetes lisent directement la zone projetee.
+	 * @param path
+	 * @return
+	 * @throws IOException si le fichier n'est pas un instantane valide
+	 */
+	public static FrozenLexicographicTree map(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+					.order(ByteOrder.LITTLE_ENDIAN);
+			if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+				throw new IOException("not a dictionary snapshot: " + path);
+			int size = buffer.getInt(8);
+			int nodeCount = buffer.getInt(12);
+			int finalsBytes = finalsLength(nodeCount) * Long.BYTES;
+			int firstChildBytes = (nodeCount + 1) * Integer.BYTES;
+			if (nodeCount < 1 || buffer.limit() != snapshotBytes(nodeCount))
+				throw new IOException("truncated dictionary snapshot: " + path);
+
+			LongBuffer finals = buffer.position(HEADER_BYTES).slice().order(ByteOrder.LITTLE_ENDIAN)
+					.asLongBuffer().limit(finalsLength(nodeCount));
+			IntBuffer firstChild = buffer.position(HEADER_BYTES + finalsBytes).slice()
+					.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().limit(nodeCount + 1);
+			CharBuffer labels = buffer.position(HEADER_BYTES + finalsBytes + firstChildBytes).slice()
+					.order(ByteOrder.LITTLE_ENDIAN).asCharBuffer().limit(nodeCount);
+			return new FrozenLexicographicTree(labels, firstChild, finals, size);
+		}
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * ecrit l'arbre dans un fichier instantane binaire, relu par map
+	 * @param path
+	 * @throws IOException
+	 */
+	public void save(Path path) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(snapshotBytes(nodeCount)).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(nodeCount);
+		for (int i = 0; i < finals.limit(); i++) {
+			buffer.putLong(finals.get(i));
+		}
+		for (int i = 0; i <= nodeCount; i++) {
+			buffer.putInt(firstChild.get(i));
+		}
+		for (int i = 0; i < nodeCount; i++) {
+			buffer.putChar(labels.get(i));
+		}
+		buffer.flip();
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * renvoie le nombre de noeuds de l'arbre, racine comprise
+	 * @return
+	 */
+	public int nodeCount() {
+		return this.nodeCount;
+	}
+
+	@Override
+	public boolean containsWord(String word) {
+		// meme convention que LexicographicTree
+		if (word == null)
+			return true;
+		return containsWord(word, 0, word.length());
+	}
+
+	@Override
+	public boolean containsWord(CharSequence word, int from, int to) {
+		Objects.checkFromToIndex(from, to, word.length());
+		if (from == to)
+			return false;
+		int node = walk(word, from, to);
+		return node >= 0 && isFinal(node);
+	}
+
+	@Override
+	public boolean containsWord(byte[] buf, int off, int len) {
+		Objects.checkFromIndexSize(off, len, buf.length);
+		if (len == 0)
+			return false;
+		int node = ROOT;
+		for (int i = off; i < off + len && node >= 0; i++) {
+			node = childByCode(node, LetterCodes.code(buf[i]));
+		}
+		return node >= 0 && isFinal(node);
+	}
+
+	@Override
+	public boolean containsWord(ByteBuffer buf, int off, int len) {
+		Objects.checkFromIndexSize(off, len, buf.limit());
+		if (len == 0)
+			return false;
+		int node = ROOT;
+		for (int i = off; i < off + len && node >= 0; i++) {
+			node = childByCode(node, LetterCodes.code(buf.get(i)));
+		}
+		return node >= 0 && isFinal(node);
+	}
+
+	@Override
+	public boolean isPrefix(String prefix) {
+		if (prefix == null)
+			return false;
+		int node = walk(prefix, 0, prefix.length());
+		return node >= 0 && firstChild.get(node + 1) > firstChild.get(node);
+	}
+
+	@Override
+	public List<String> getWords(String givenPrefix) {
+		String prefix = givenPrefix.trim();
+		List<String> words = new ArrayList<>();
+		int node = walk(prefix, 0, prefix.length());
+		if (node < 0)
+			return words;
+		StringBuilder buffer = new StringBuilder(prefix);
+		collectWords(node, buffer, Integer.MAX_VALUE, words);
+		return words;
+	}
+
+	@Override
+	public List<String> getWordsOfLength(int length) {
+		List<String> words = new ArrayList<>();
+		if (length <= 0)
+			return words;
+		collectWords(ROOT, new StringBuilder(length), length, words);
+		return words;
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	private static int finalsLength(int nodeCount) {
+		return (nodeCount + 63) >>> 6;
+	}
+
+	private static int snapshotBytes(int nodeCount) {
+		return HEADER_BYTES + finalsLength(nodeCount) * Long.BYTES + (nodeCount + 1) * Integer.BYTES
+				+ nodeCount * Character.BYTES;
+	}
+
+	private boolean isFinal(int node) {
+		return (finals.get(node >>> 6) & (1L << node)) != 0;
+	}
+
+	/**
+	 * recherche dichotomique de la lettre parmi les enfants du noeud
+	 */
+	private int child(int node, char character) {
+		int low = firstChild.get(node);
+		int high = firstChild.get(node + 1) - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			char letter = labels.get(middle);
+			if (letter < character)
+				low = middle + 1;
+			else if (letter > character)
+				high = middle - 1;
+			else
+				return middle;
+		}
+		return -1;
+	}
+
+	private int childByCode(int node, int code) {
+		return code == LetterCodes.NONE ? -1 : child(node, LetterCodes.letter(code));
+	}
+
+	private int walk(CharSequence word, int from, int to) {
+		int node = ROOT;
+		for (int i = from; i < to && node >= 0; i++) {
+			node = child(node, word.charAt(i));
+		}
+		return node;
+	}
+
+	/**
+	 * parcours en profondeur, les enfants etant ranges par ordre de lettre les
+	 * mots sont produits dans l'ordre alphabetique. Si length est fourni seuls les
+	 * mots de cette longueur sont gardes
+	 */
+	private void collectWords(int node, StringBuilder buffer, int length, List<String> words) {
+		boolean exactLength = length != Integer.MAX_VALUE;
+		if (isFinal(node) && (!exactLength || buffer.length() == length)) {
+			words.add(buffer.toString());
+		}
+		if (buffer.length() >= length)
+			return;
+		int end = firstChild.get(node + 1);
+		for (int child = firstChild.get(node); child < end; child++) {
+			buffer.append(labels.get(child));
+			collectWords(child, buffer, length, words);
+			buffer.setLength(buffer.length() - 1);
+		}
+	}
+}
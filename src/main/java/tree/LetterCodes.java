@@ -0,0 +1,63 @@
+package tree;
+
+import java.util.Arrays;
+
+/**
+ * codage des caracteres des mots du dictionnaire sur 5 bits : les lettres a-z
+ * (majuscules ou minuscules) ont les codes 0 a 25, le tiret 26 et l'apostrophe
+ * 27. Les autres caracteres n'ont pas de code.
+ * @author virgi
+ *
+ */
+public final class LetterCodes {
+	/**
+	 * nombre de codes utilises, inferieur a 32
+	 */
+	public static final int CODE_COUNT = 28;
+	/**
+	 * valeur renvoyee pour un caractere sans code
+	 */
+	public static final int NONE = -1;
+
+	private static final int HYPHEN = 26;
+	private static final int APOSTROPHE = 27;
+	private static final byte[] CODES = new byte[128];
+
+	static {
+		Arrays.fill(CODES, (byte) NONE);
+		for (int i = 0; i < 26; i++) {
+			CODES['a' + i] = (byte) i;
+			CODES['A' + i] = (byte) i;
+		}
+		CODES['-'] = HYPHEN;
+		CODES['\''] = APOSTROPHE;
+	}
+
+	private LetterCodes() {
+	}
+
+	/**
+	 * renvoie le code du caractere, ou NONE s'il n'en a pas ; un octet lu dans un
+	 * tampon peut etre fourni tel quel, les valeurs negatives n'ont pas de code
+	 * @param character
+	 * @return
+	 */
+	public static int code(int character) {
+		return character >= 0 && character < CODES.length ? CODES[character] : NONE;
+	}
+
+	/**
+	 * renvoie le caractere (en minuscule) correspondant au code
+	 * @param code
+	 * @return
+	 */
+	public static char letter(int code) {
+		if (code < 0 || code >= CODE_COUNT)
+			throw new IllegalArgumentException("incorrect code: " + code);
+		if (code == HYPHEN)
+			return '-';
+		if (code == APOSTROPHE)
+			return '\'';
+		return (char) ('a' + code);
+	}
+}
@@ -1,27 +1,43 @@
 package tree;
 
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.io.BufferedInputStream;
 import java.io.File;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.GZIPInputStream;
 
 /**
  * class d'un arbre lexicographique
  * @author virgi
  *
  */
-public class LexicographicTree {
+public class LexicographicTree implements Lexicon {
 
 	private Node start;
 	private int size;
 
 	private static final String DICTIONARY = "src/main/resources/mots/dictionnaire_FR_sans_accents.txt";
+	private static final int READ_BUFFER_SIZE = 1 << 14;
 	/*
 	 * CONSTRUCTORS
 	 */
@@ -43,13 +59,101 @@ public class LexicographicTree {
 		size = 0;
 		if (filename != null) {
 			try {
-				var list = Files.readAllLines(Paths.get(filename));
-				list.forEach(str -> this.insertWord(str));
+				load(Paths.get(filename));
 			} catch (IOException e) {
 				System.err.println("Error reading file: " + e.getMessage());			}
 		}
 	}
 
+	/**
+	 * Creates a lexicographic tree from words sorted in increasing character order
+	 * (the order of String.compareTo). The tree is built in one pass: each word
+	 * only creates the nodes following its common prefix with the previous word,
+	 * appended after the existing children. Blank words and repeated words are
+	 * ignored.
+	 *
+	 * @param sortedWords Words in increasing order
+	 * @return The lexicographic tree containing the words
+	 * @throws IllegalArgumentException If the words are not sorted
+	 */
+	public static LexicographicTree fromSorted(Iterable<? extends CharSequence> sortedWords) {
+		LexicographicTree tree = new LexicographicTree();
+		SortedAppender appender = new SortedAppender(tree.start);
+		for (CharSequence word : sortedWords) {
+			if (isBlank(word, 0, word.length()))
+				continue;
+			int common = appender.commonPrefix(word, 0, word.length());
+			if (common < 0)
+				throw new IllegalArgumentException("words are not sorted: " + word);
+			if (appender.append(word, 0, word.length(), common))
+				tree.size++;
+		}
+		return tree;
+	}
+
+	/**
+	 * Creates a lexicographic tree from words in any order, using the common
+	 * fork-join pool.
+	 *
+	 * @param words Words to be inserted in the tree
+	 * @return The lexicographic tree containing the words
+	 * @see #fromWordsInParallel(Collection, ForkJoinPool)
+	 */
+	public static LexicographicTree fromWordsInParallel(Collection<? extends CharSequence> words) {
+		return fromWordsInParallel(words, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a lexicographic tree from words in any order, building the subtrees
+	 * of each two-letter prefix on the supplied pool. The subtrees are then
+	 * attached under the root in letter order. The result holds the same words as
+	 * a tree filled with insertWord.
+	 *
+	 * @param words Words to be inserted in the tree
+	 * @param pool  Pool running the construction of the subtrees
+	 * @return The lexicographic tree containing the words
+	 */
+	public static LexicographicTree fromWordsInParallel(Collection<? extends CharSequence> words, ForkJoinPool pool) {
+		// cle : premiere lettre puis seconde lettre + 1, 0 pour les mots d'une lettre
+		Map<Long, List<CharSequence>> partitions = new TreeMap<>();
+		for (CharSequence word : words) {
+			if (isBlank(word, 0, word.length()))
+				continue;
+			long key = (long) word.charAt(0) << 17 | (word.length() > 1 ? word.charAt(1) + 1 : 0);
+			partitions.computeIfAbsent(key, k -> new ArrayList<>()).add(word);
+		}
+
+		List<ForkJoinTask<LexicographicTree>> tasks = new ArrayList<>();
+		for (List<CharSequence> partition : partitions.values()) {
+			tasks.add(pool.submit(() -> {
+				LexicographicTree part = new LexicographicTree();
+				SortedAppender appender = new SortedAppender(part.start);
+				for (CharSequence word : partition) {
+					appender = part.appendOrInsert(appender, word, word.length());
+				}
+				return part;
+			}));
+		}
+
+		LexicographicTree tree = new LexicographicTree();
+		Node first = null;
+		for (ForkJoinTask<LexicographicTree> task : tasks) {
+			LexicographicTree part = task.join();
+			Node partFirst = part.start.childAt(0);
+			if (first == null || first.getLetter() != partFirst.getLetter()) {
+				first = new Node(partFirst.getLetter());
+				tree.start.appendChild(first);
+			}
+			if (partFirst.isFinal())
+				first.setFinal();
+			if (partFirst.childCount() > 0)
+				first.appendChild(partFirst.childAt(0));
+			tree.start.raiseHeight(first.height() + 1);
+			tree.size += part.size;
+		}
+		return tree;
+	}
+
 	/*
 	 * PUBLIC METHODS
 	 */
@@ -63,6 +167,17 @@ public class LexicographicTree {
 		return this.size;
 	}
 
+	/**
+	 * renvoie la racine de l'arbre, pour le parcourir noeud par noeud (par exemple
+	 * en meme temps qu'un chemin dans une grille) sans repartir de la racine a
+	 * chaque lettre. Les methodes de modification des noeuds etant reservees au
+	 * paquetage, l'arbre ne peut etre modifie qu'a travers ses propres methodes
+	 * @return
+	 */
+	public Node getRoot() {
+		return this.start;
+	}
+
 	/**
 	 * Inserts a word in the lexicographic tree if not already present.
 	 *
@@ -77,6 +192,80 @@ public class LexicographicTree {
 		this.size++;
 	}
 
+	/**
+	 * Inserts the words of a text file, one word per line. The file may be
+	 * gzip-compressed.
+	 *
+	 * @param path A text file containing the words to be inserted in the tree
+	 * @return The number of lines read, words inserted and the load duration
+	 * @throws IOException If the file cannot be read
+	 */
+	public LoadReport load(Path path) throws IOException {
+		try (InputStream input = Files.newInputStream(path)) {
+			return load(input);
+		}
+	}
+
+	/**
+	 * Inserts the words read from a stream of UTF-8 text, one word per line. A
+	 * gzip-compressed stream is detected and decompressed on the fly. Lines are
+	 * decoded into a reusable buffer and inserted without creating a String per
+	 * line. When the tree is empty and the lines come sorted, they are appended as
+	 * in fromSorted until the first line out of order. The stream is read to the
+	 * end but not closed.
+	 *
+	 * @param input A stream of words separated by line breaks
+	 * @return The number of lines read, words inserted and the load duration
+	 * @throws IOException If the stream cannot be read
+	 */
+	public LoadReport load(InputStream input) throws IOException {
+		long startTime = System.nanoTime();
+		int startSize = this.size;
+
+		BufferedInputStream buffered = new BufferedInputStream(input, READ_BUFFER_SIZE);
+		buffered.mark(2);
+		int magic = buffered.read() | (buffered.read() << 8);
+		buffered.reset();
+		InputStream source = magic == GZIPInputStream.GZIP_MAGIC ? new GZIPInputStream(buffered, READ_BUFFER_SIZE)
+				: buffered;
+		Reader reader = new InputStreamReader(source, StandardCharsets.UTF_8);
+
+		char[] chunk = new char[READ_BUFFER_SIZE];
+		char[] line = new char[64];
+		CharBuffer lineView = CharBuffer.wrap(line);
+		SortedAppender appender = this.size == 0 && this.start.childCount() == 0 ? new SortedAppender(this.start)
+				: null;
+		int length = 0;
+		long lineCount = 0;
+		boolean afterCarriageReturn = false;
+		int read;
+		while ((read = reader.read(chunk)) != -1) {
+			for (int i = 0; i < read; i++) {
+				char character = chunk[i];
+				if (character == '\n' && afterCarriageReturn) {
+					afterCarriageReturn = false;
+				} else if (character == '\n' || character == '\r') {
+					afterCarriageReturn = character == '\r';
+					appender = appendOrInsert(appender, lineView, length);
+					lineCount++;
+					length = 0;
+				} else {
+					afterCarriageReturn = false;
+					if (length == line.length) {
+						line = Arrays.copyOf(line, length * 2);
+						lineView = CharBuffer.wrap(line);
+					}
+					line[length++] = character;
+				}
+			}
+		}
+		if (length > 0) {
+			appendOrInsert(appender, lineView, length);
+			lineCount++;
+		}
+		return new LoadReport(lineCount, this.size - startSize, Duration.ofNanos(System.nanoTime() - startTime));
+	}
+
 	/**
 	 * Determines if a word is present in the lexicographic tree.
 	 *
@@ -87,6 +276,48 @@ public class LexicographicTree {
 		return this.start.containsWord(word);
 	}
 
+	/**
+	 * Determines if the slice [from, to) of a character sequence is a word present
+	 * in the lexicographic tree. No intermediate String is created.
+	 *
+	 * @param word A character sequence (String, StringBuilder, CharBuffer...)
+	 * @param from Index of the first character of the word
+	 * @param to   Index following the last character of the word
+	 * @return True if the word is present, false otherwise
+	 */
+	public boolean containsWord(CharSequence word, int from, int to) {
+		return this.start.containsWord(word, from, to);
+	}
+
+	/**
+	 * Determines if the 'len' ASCII bytes starting at 'off' form a word present in
+	 * the lexicographic tree, regardless of letter case. No character is decoded.
+	 *
+	 * @param buf A byte array
+	 * @param off Index of the first byte of the word
+	 * @param len Length of the word
+	 * @return True if the word is present, false otherwise
+	 */
+	@Override
+	public boolean containsWord(byte[] buf, int off, int len) {
+		return this.start.containsWord(buf, off, len);
+	}
+
+	/**
+	 * Determines if the 'len' ASCII bytes starting at the absolute index 'off' of a
+	 * buffer form a word present in the lexicographic tree, regardless of letter
+	 * case. The position of the buffer is left unchanged.
+	 *
+	 * @param buf A byte buffer, for example a mapped file
+	 * @param off Absolute index of the first byte of the word
+	 * @param len Length of the word
+	 * @return True if the word is present, false otherwise
+	 */
+	@Override
+	public boolean containsWord(ByteBuffer buf, int off, int len) {
+		return this.start.containsWord(buf, off, len);
+	}
+
 	/**
 	 * Returns an alphabetic list of all words starting with the supplied prefix. If
 	 * 'prefix' is an empty string, all words are returned.
@@ -98,8 +329,7 @@ public class LexicographicTree {
 		String prefix=givenPrefix.trim();
 		List<String> words = new ArrayList<>();
 		Node node = getNodePrefix(prefix);
-		getAllWord(node, words, prefix);
-		Collections.sort(words);
+		getAllWord(node, words, new StringBuilder(prefix));
 		return words;
 	}
 
@@ -108,46 +338,112 @@ public class LexicographicTree {
 
 	/**
 	 * Returns an alphabetic list of all words of a given length. If 'length' is
-	 * lower than or equal to zero, an empty list is returned.
+	 * lower than or equal to zero, an empty list is returned. Subtrees whose
+	 * longest word is too short are skipped (see Node.height); a new list is
+	 * returned on every call.
 	 *
 	 * @param length Expected word length
 	 * @return The list of words with the given length
 	 */
 	public List<String> getWordsOfLength(int length) {
 		List<String> words = new ArrayList<>();
-		if (length <= 0) {
+		if (length <= 0 || this.start.height() < length) {
 			return words;
 		}
-		getAllWordsOfLength(this.start, words, length, "");
-		Collections.sort(words);
+		getAllWordsOfLength(this.start, words, new char[length], 0);
 		return words;
 	}
 
+	/**
+	 * Returns a read-only copy of the lexicographic tree stored in flat primitive
+	 * arrays. Later insertions in this tree are not reflected in the copy.
+	 *
+	 * @return The frozen copy of the tree
+	 */
+	public FrozenLexicographicTree freeze() {
+		return FrozenLexicographicTree.of(this.start, this.size);
+	}
+
 	/*
 	 * PRIVATE METHODS
 	 */
 
-	private void getAllWordsOfLength(Node node, List<String> words, int length, String currentWord) {
-		if (currentWord.length() == length) {
+	/**
+	 * insere un mot en mode trie tant que les mots arrivent dans l'ordre. Renvoie
+	 * l'appender a utiliser pour le mot suivant (null une fois l'ordre rompu)
+	 */
+	private SortedAppender appendOrInsert(SortedAppender appender, CharSequence line, int length) {
+		if (appender != null && !isBlank(line, 0, length)) {
+			int common = appender.commonPrefix(line, 0, length);
+			if (common >= 0) {
+				if (appender.append(line, 0, length, common))
+					this.size++;
+				return appender;
+			}
+		}
+		insertWord(line, 0, length);
+		return isBlank(line, 0, length) ? appender : null;
+	}
+
+	private void insertWord(CharSequence word, int from, int to) {
+		if (isBlank(word, from, to))
+			return;
+		if (this.start.containsWord(word, from, to))
+			return;
+		this.start.addWord(word, from, to);
+		this.size++;
+	}
+
+	/**
+	 * renvoie si les caracteres de from (inclus) a to (exclu) sont tous des blancs
+	 * ; un tel mot n'est pas insere
+	 */
+	static boolean isBlank(CharSequence word, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (!Character.isWhitespace(word.charAt(i)))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * parcours en profondeur limite a la longueur du tableau word, qui recoit le
+	 * mot courant ; un enfant n'est visite que si un mot assez long le prolonge.
+	 * Les enfants etant ranges par ordre de lettre, les mots sont produits dans
+	 * l'ordre alphabetique
+	 */
+	private void getAllWordsOfLength(Node node, List<String> words, char[] word, int depth) {
+		if (depth == word.length) {
 			if (node.isFinal()) {
-				words.add(currentWord);
+				words.add(new String(word));
 			}
 			return;
 		}
-		for (Node child : node.getChilds()) {
-			getAllWordsOfLength(child, words, length, currentWord + child.getLetter());
+		for (int i = 0; i < node.childCount(); i++) {
+			Node child = node.childAt(i);
+			if (depth + 1 + child.height() >= word.length) {
+				word[depth] = child.getLetter();
+				getAllWordsOfLength(child, words, word, depth + 1);
+			}
 		}
 	}
 
-	private void getAllWord(Node node, List<String> words, String prefix) {
+	/**
+	 * parcours en profondeur, les enfants etant ranges par ordre de lettre les
+	 * mots sont produits dans l'ordre alphabetique
+	 */
+	private void getAllWord(Node node, List<String> words, StringBuilder prefix) {
 		if (node == null) {
 			return;
 		}
 		if (node.isFinal()) {
-			words.add(prefix);
+			words.add(prefix.toString());
 		}
-		for (Node child : node.getChilds()) {
-			getAllWord(child, words, prefix + child.getLetter());
+		for (int i = 0; i < node.childCount(); i++) {
+			Node child = node.childAt(i);
+			prefix.append(child.getLetter());
+			getAllWord(child, words, prefix);
+			prefix.setLength(prefix.length() - 1);
 		}
 	}
 
@@ -171,7 +467,67 @@ public class LexicographicTree {
 		if(prefix==null)return false;
 		Node node=getNodePrefix(prefix);
 		if(node==null)return false;
-		return node.getChilds().length>0?true:false;
+		return node.childCount()>0;
+	}
+
+	/**
+	 * ajout de mots tries : garde le chemin du dernier mot ajoute, un nouveau mot
+	 * reprend ce chemin a la fin du prefixe commun et cree ses noeuds apres les
+	 * fils existants
+	 */
+	private static final class SortedAppender {
+		private Node[] path;
+		private char[] previous;
+		private int previousLength;
+
+		private SortedAppender(Node root) {
+			this.path = new Node[32];
+			this.previous = new char[32];
+			this.path[0] = root;
+		}
+
+		/**
+		 * renvoie la longueur du prefixe commun avec le mot precedent, ou -1 si le mot
+		 * est plus petit que le mot precedent
+		 */
+		private int commonPrefix(CharSequence word, int from, int to) {
+			int length = to - from;
+			int max = Math.min(length, previousLength);
+			int common = 0;
+			while (common < max && word.charAt(from + common) == previous[common])
+				common++;
+			if (common < max)
+				return word.charAt(from + common) > previous[common] ? common : -1;
+			return length >= previousLength ? common : -1;
+		}
+
+		/**
+		 * ajoute le mot a partir du prefixe commun, renvoie false pour un doublon
+		 */
+		private boolean append(CharSequence word, int from, int to, int common) {
+			int length = to - from;
+			if (common == length)
+				return false;
+			if (length >= path.length) {
+				path = Arrays.copyOf(path, length * 2);
+				previous = Arrays.copyOf(previous, length * 2);
+			}
+			Node node = path[common];
+			for (int i = common; i < length; i++) {
+				char character = word.charAt(from + i);
+				Node child = new Node(character);
+				node.appendChild(child);
+				path[i + 1] = child;
+				previous[i] = character;
+				node = child;
+			}
+			node.setFinal();
+			for (int i = 0; i < length; i++) {
+				path[i].raiseHeight(length - i);
+			}
+			previousLength = length;
+			return true;
+		}
 	}
 
 	/*
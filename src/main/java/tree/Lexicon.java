@@ -0,0 +1,105 @@
+package tree;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * interface commune des dictionnaires interroges par les solveurs
+ * (arbre lexicographique, version figee...)
+ * @author virgi
+ *
+ */
+public interface Lexicon {
+
+	/**
+	 * Returns the number of words present in the dictionary.
+	 *
+	 * @return The number of words present in the dictionary
+	 */
+	int size();
+
+	/**
+	 * Determines if a word is present in the dictionary.
+	 *
+	 * @param word A word
+	 * @return True if the word is present, false otherwise
+	 */
+	boolean containsWord(String word);
+
+	/**
+	 * Determines if the slice [from, to) of a character sequence is a word present
+	 * in the dictionary.
+	 *
+	 * @param word A character sequence
+	 * @param from Index of the first character of the word
+	 * @param to   Index following the last character of the word
+	 * @return True if the word is present, false otherwise
+	 */
+	boolean containsWord(CharSequence word, int from, int to);
+
+	/**
+	 * Determines if the 'len' ASCII bytes starting at 'off' form a word present in
+	 * the dictionary. Letters are matched regardless of case (see LetterCodes); a
+	 * byte without letter code never matches.
+	 *
+	 * @param buf A byte array
+	 * @param off Index of the first byte of the word
+	 * @param len Length of the word
+	 * @return True if the word is present, false otherwise
+	 */
+	default boolean containsWord(byte[] buf, int off, int len) {
+		return containsWord(ByteBuffer.wrap(buf), off, len);
+	}
+
+	/**
+	 * Determines if the 'len' ASCII bytes starting at the absolute index 'off' of a
+	 * buffer form a word present in the dictionary. Letters are matched regardless
+	 * of case (see LetterCodes); a byte without letter code never matches. The
+	 * position of the buffer is left unchanged.
+	 *
+	 * @param buf A byte buffer, for example a mapped file
+	 * @param off Absolute index of the first byte of the word
+	 * @param len Length of the word
+	 * @return True if the word is present, false otherwise
+	 */
+	default boolean containsWord(ByteBuffer buf, int off, int len) {
+		Objects.checkFromIndexSize(off, len, buf.limit());
+		char[] word = new char[len];
+		for (int i = 0; i < len; i++) {
+			int code = LetterCodes.code(buf.get(off + i));
+			if (code == LetterCodes.NONE)
+				return false;
+			word[i] = LetterCodes.letter(code);
+		}
+		return containsWord(CharBuffer.wrap(word), 0, len);
+	}
+
+	/**
+	 * Determines if at least one word of the dictionary strictly extends the
+	 * supplied prefix.
+	 *
+	 * @param prefix A prefix
+	 * @return True if a longer word starts with the prefix, false otherwise
+	 */
+	boolean isPrefix(String prefix);
+
+	/**
+	 * Returns an alphabetic list of all words starting with the supplied prefix. If
+	 * 'prefix' is an empty string, all words are returned.
+	 *
+	 * @param prefix Expected prefix
+	 * @return The list of words starting with the supplied prefix
+	 */
+	List<String> getWords(String prefix);
+
+	/**
+	 * Returns an alphabetic list of all words of a given length. If 'length' is
+	 * lower than or equal to zero, an empty list is returned.
+	 *
+	 * @param length Expected word length
+	 * @return The list of words with the given length
+	 */
+	List<String> getWordsOfLength(int length);
+}
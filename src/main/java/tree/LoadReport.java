@@ -0,0 +1,50 @@
+package tree;
+
+import java.time.Duration;
+
+/**
+ * compte rendu du chargement d'un dictionnaire : nombre de lignes lues, nombre
+ * de mots ajoutes a l'arbre et duree du chargement
+ * @author virgi
+ *
+ */
+public final class LoadReport {
+	private final long lineCount;
+	private final long insertedCount;
+	private final Duration elapsed;
+
+	LoadReport(long lineCount, long insertedCount, Duration elapsed) {
+		this.lineCount = lineCount;
+		this.insertedCount = insertedCount;
+		this.elapsed = elapsed;
+	}
+
+	/**
+	 * renvoie le nombre de lignes lues, lignes vides comprises
+	 * @return
+	 */
+	public long getLineCount() {
+		return this.lineCount;
+	}
+
+	/**
+	 * renvoie le nombre de mots qui n'etaient pas encore dans l'arbre
+	 * @return
+	 */
+	public long getInsertedCount() {
+		return this.insertedCount;
+	}
+
+	/**
+	 * renvoie la duree du chargement
+	 * @return
+	 */
+	public Duration getElapsed() {
+		return this.elapsed;
+	}
+
+	@Override
+	public String toString() {
+		return lineCount + " lines, " + insertedCount + " words inserted in " + elapsed.toMillis() / 1000.0 + " s";
+	}
+}
@@ -1,6 +1,8 @@
 package tree;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Objects;
 
 /**
  * class de Node representant le noeud d'un arbre lexicographique
@@ -8,9 +10,26 @@ import java.util.Arrays;
  *
  */
 public class Node implements Comparable<Node>{
+	private static final Node[] NO_CHILD = new Node[0];
+	private static final int ALPHABET_SIZE = 26;
+
 	private final char letter;
 	private boolean isFinal;
+	/*
+	 * les enfants sont ranges par ordre de lettre dans un tableau compact :
+	 * d'abord les caracteres inferieurs a 'a', puis les lettres a-z (reperees par
+	 * letterMask), puis les caracteres superieurs a 'z'
+	 */
 	private Node[] childs;
+	private int childCount;
+	private int letterMask;
+	private int lowerCount;
+	/*
+	 * nombre de lettres du plus long mot passant par le noeud, comptees apres le
+	 * noeud : permet d'ecarter les sous-arbres trop courts lors d'une recherche
+	 * par longueur
+	 */
+	private int height;
 	
 	/**
 	 * constructeur du noeud recevant le caractere en parametre
@@ -18,7 +37,7 @@ public class Node implements Comparable<Node>{
 	 */
 	public Node(char letter) {
 		this.letter=letter;
-		childs=new Node[0];
+		childs=NO_CHILD;
 	}
 	
 	public char getLetter() {
@@ -38,13 +57,50 @@ public class Node implements Comparable<Node>{
 	 * @return
 	 */
 	public Node[] getChilds(){
-			return Arrays.copyOf(this.childs, this.childs.length);
+			return Arrays.copyOf(this.childs, this.childCount);
+	}
+
+	/**
+	 * renvoie le nombre d'enfants du noeud
+	 * @return
+	 */
+	public int childCount() {
+		return this.childCount;
+	}
+
+	/**
+	 * renvoie le i-eme enfant du noeud, les enfants etant ranges par ordre de
+	 * lettre. Contrairement a getChilds aucun tableau n'est copie
+	 * @param index
+	 * @return
+	 */
+	public Node childAt(int index) {
+		Objects.checkIndex(index, this.childCount);
+		return this.childs[index];
 	}
 	
+	/**
+	 * renvoie le nombre de lettres, apres ce noeud, du plus long mot qui passe par
+	 * lui (0 si aucun mot ne le prolonge)
+	 * @return
+	 */
+	public int height() {
+		return this.height;
+	}
+
+	/**
+	 * garantit qu'un mot de height lettres prolonge le noeud
+	 * @param height
+	 */
+	void raiseHeight(int height) {
+		if (height > this.height)
+			this.height = height;
+	}
+
 	/**
 	 * set le noeud comme final
 	 */
-	public void setFinal() {
+	void setFinal() {
 		this.isFinal=true;
 	}
 
@@ -54,9 +110,18 @@ public class Node implements Comparable<Node>{
 	 * @return
 	 */
 	public Node getChild(char character) {
-		if(childs.length==0)return null;
-		for(Node node:childs) {
-			if(node.getLetter()==character)return node;
+		int index = character - 'a';
+		if (index >= 0 && index < ALPHABET_SIZE) {
+			int bit = 1 << index;
+			if ((letterMask & bit) == 0)
+				return null;
+			return childs[lowerCount + Integer.bitCount(letterMask & (bit - 1))];
+		}
+		int from = index < 0 ? 0 : lowerCount + Integer.bitCount(letterMask);
+		int to = index < 0 ? lowerCount : childCount;
+		for (int i = from; i < to; i++) {
+			if (childs[i].letter == character)
+				return childs[i];
 		}
 		return null;
 	}
@@ -67,10 +132,55 @@ public class Node implements Comparable<Node>{
 	 * cree un fils au noeud en recevant un noeud en parametre
 	 * @param node
 	 */
-	public void addChild(Node node) {
+	void addChild(Node node) {
 		if(getChild(node.getLetter())!=null)return;
-		childs=Arrays.copyOf(childs, childs.length+1);
-		childs[childs.length-1]=node;
+		char character = node.getLetter();
+		int index = character - 'a';
+		int position;
+		if (index >= 0 && index < ALPHABET_SIZE) {
+			int bit = 1 << index;
+			position = lowerCount + Integer.bitCount(letterMask & (bit - 1));
+			letterMask |= bit;
+		} else {
+			int from = index < 0 ? 0 : lowerCount + Integer.bitCount(letterMask);
+			int to = index < 0 ? lowerCount : childCount;
+			position = from;
+			while (position < to && childs[position].letter < character)
+				position++;
+			if (index < 0)
+				lowerCount++;
+		}
+		insertAt(position, node);
+		raiseHeight(node.height + 1);
+	}
+
+	/**
+	 * ajoute un fils apres tous les autres, sans verifier les doublons. Utilise
+	 * pour construire un arbre a partir de mots tries : la lettre du noeud doit
+	 * etre superieure a celles des fils existants
+	 * @param node
+	 */
+	void appendChild(Node node) {
+		int index = node.getLetter() - 'a';
+		if (index >= 0 && index < ALPHABET_SIZE) {
+			letterMask |= 1 << index;
+		} else if (index < 0) {
+			lowerCount++;
+		}
+		insertAt(childCount, node);
+		raiseHeight(node.height + 1);
+	}
+
+	/**
+	 * insere le noeud a la position donnee, le tableau grandit par doublement
+	 */
+	private void insertAt(int position, Node node) {
+		if (childCount == childs.length) {
+			childs = Arrays.copyOf(childs, Math.max(2, childCount * 2));
+		}
+		System.arraycopy(childs, position, childs, position + 1, childCount - position);
+		childs[position] = node;
+		childCount++;
 	}
 	
 	
@@ -80,21 +190,37 @@ public class Node implements Comparable<Node>{
 	 * ajoute à partir du noeud actuel
 	 * @param word
 	 */
-	public void addWord(String word) {
+	void addWord(String word) {
 	    if (word == null || word.isEmpty()) {
 	        return;
 	    }
-	    char firstChar = word.charAt(0);
-	    Node child = getChild(firstChar);
-	    if (child == null) {
-	    	child=new Node(firstChar);
-	        addChild(child);
+	    addWord(word, 0, word.length());
+	}
+
+	/**
+	 * ajoute à partir du noeud actuel le mot compris entre from (inclus) et to
+	 * (exclu) dans la sequence, sans creer de sous-chaine
+	 * @param word
+	 * @param from
+	 * @param to
+	 */
+	void addWord(CharSequence word, int from, int to) {
+	    Objects.checkFromToIndex(from, to, word.length());
+	    if (from == to) {
+	        return;
 	    }
-	    if (word.length() == 1) {
-	        child.setFinal();
-	    } else {
-	        child.addWord(word.substring(1));
+	    Node node = this;
+	    for (int i = from; i < to; i++) {
+	        node.raiseHeight(to - i);
+	        char character = word.charAt(i);
+	        Node child = node.getChild(character);
+	        if (child == null) {
+	            child = new Node(character);
+	            node.addChild(child);
+	        }
+	        node = child;
 	    }
+	    node.setFinal();
 	}
 	
 	/**
@@ -106,17 +232,90 @@ public class Node implements Comparable<Node>{
 	    if (word == null) {
 	        return true;
 	    }
-	    if(word.isEmpty())return false;
-	    char firstChar = word.charAt(0);
-	    Node child = getChild(firstChar);
-	    if (child == null) {
+	    return containsWord(word, 0, word.length());
+	}
+
+	/**
+	 * verifie si a partir du noeud on peut trouver le mot compris entre from
+	 * (inclus) et to (exclu) dans la sequence, sans creer de sous-chaine
+	 * @param word
+	 * @param from
+	 * @param to
+	 * @return
+	 */
+	public boolean containsWord(CharSequence word, int from, int to) {
+	    Objects.checkFromToIndex(from, to, word.length());
+	    if (from == to) {
+	        return false;
+	    }
+	    Node node = this;
+	    for (int i = from; i < to && node != null; i++) {
+	        node = node.getChild(word.charAt(i));
+	    }
+	    return node != null && node.isFinal();
+	}
+
+	/**
+	 * verifie si a partir du noeud on peut trouver le mot ecrit en ASCII dans les
+	 * len octets commencant a off, sans distinguer majuscules et minuscules
+	 * @param buf
+	 * @param off
+	 * @param len
+	 * @return
+	 */
+	public boolean containsWord(byte[] buf, int off, int len) {
+	    Objects.checkFromIndexSize(off, len, buf.length);
+	    if (len == 0) {
+	        return false;
+	    }
+	    Node node = this;
+	    for (int i = off; i < off + len && node != null; i++) {
+	        node = node.getChildByCode(LetterCodes.code(buf[i]));
+	    }
+	    return node != null && node.isFinal();
+	}
+
+	/**
+	 * verifie si a partir du noeud on peut trouver le mot ecrit en ASCII dans les
+	 * len octets du tampon commencant a l'indice absolu off, sans distinguer
+	 * majuscules et minuscules ; la position du tampon n'est pas modifiee
+	 * @param buf
+	 * @param off
+	 * @param len
+	 * @return
+	 */
+	public boolean containsWord(ByteBuffer buf, int off, int len) {
+	    Objects.checkFromIndexSize(off, len, buf.limit());
+	    if (len == 0) {
 	        return false;
 	    }
-	    if (word.length() == 1) {
-	        return child.isFinal();
-	    } else {
-	        return child.containsWord(word.substring(1));
+	    Node node = this;
+	    for (int i = off; i < off + len && node != null; i++) {
+	        node = node.getChildByCode(LetterCodes.code(buf.get(i)));
+	    }
+	    return node != null && node.isFinal();
+	}
+
+	/**
+	 * renvoie le fils correspondant au code (voir LetterCodes), null s'il n'existe
+	 * pas ; les codes 0 a 25 sont les bits de letterMask, le tiret et
+	 * l'apostrophe sont inferieurs a 'a'
+	 */
+	private Node getChildByCode(int code) {
+	    if (code >= 0 && code < ALPHABET_SIZE) {
+	        int bit = 1 << code;
+	        if ((letterMask & bit) == 0)
+	            return null;
+	        return childs[lowerCount + Integer.bitCount(letterMask & (bit - 1))];
+	    }
+	    if (code == LetterCodes.NONE)
+	        return null;
+	    char character = LetterCodes.letter(code);
+	    for (int i = 0; i < lowerCount; i++) {
+	        if (childs[i].letter == character)
+	            return childs[i];
 	    }
+	    return null;
 	}
 
 	
@@ -0,0 +1,109 @@
+package boggle;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tree.LexicographicTree;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class BoggleBatchTest {
+	private static final String DICTIONARY = "src/main/resources/mots/dictionnaire_FR_sans_accents.txt";
+	private static final String GRID_LETTERS = "rhreypcswnsntego";
+	private static LexicographicTree dictionary = null;
+
+	@BeforeAll
+	public static void initTestDictionary() {
+		dictionary = new LexicographicTree(DICTIONARY);
+	}
+
+	private static String randomGrid(Random random, int size) {
+		StringBuilder letters = new StringBuilder();
+		for (int i = 0; i < size * size; i++) {
+			letters.append("eeeeaaiissnnrrttoouullcdmpvgbfhjqxyzkw".charAt(random.nextInt(38)));
+		}
+		return letters.toString();
+	}
+
+	private static int score(Set<String> words) {
+		int score = 0;
+		for (String word : words) {
+			int length = word.length();
+			score += length <= 4 ? 1 : length == 5 ? 2 : length == 6 ? 3 : length == 7 ? 5 : 11;
+		}
+		return score;
+	}
+
+	@Test
+	void countsAndScoresLikeSolve() throws InterruptedException {
+		// GIVEN
+		Random random = new Random(42);
+		StringBuilder packed = new StringBuilder(GRID_LETTERS.toUpperCase());
+		int[] expectedCounts = new int[50];
+		int[] expectedScores = new int[50];
+		Set<String> words = new Boggle(4, GRID_LETTERS, dictionary).solve();
+		expectedCounts[0] = words.size();
+		expectedScores[0] = score(words);
+		for (int i = 1; i < 50; i++) {
+			String grid = randomGrid(random, 4);
+			packed.append(grid);
+			words = new Boggle(4, grid, dictionary).solve();
+			expectedCounts[i] = words.size();
+			expectedScores[i] = score(words);
+		}
+		byte[] grids = packed.toString().getBytes(StandardCharsets.US_ASCII);
+
+		// WHEN
+		BoggleBatch batch = new BoggleBatch(dictionary, 4, 3);
+
+		// THEN
+		assertArrayEquals(expectedCounts, batch.countWords(grids));
+		assertArrayEquals(expectedScores, batch.score(grids));
+		assertArrayEquals(expectedCounts, new BoggleBatch(dictionary, 4, 1).countWords(grids));
+		assertEquals(40, expectedCounts[0]);
+	}
+
+	@Test
+	void reusesPoolAndContextsAcrossCalls() throws InterruptedException {
+		// GIVEN
+		Random random = new Random(7);
+		byte[] grids = (randomGrid(random, 4) + randomGrid(random, 4) + randomGrid(random, 4))
+				.getBytes(StandardCharsets.US_ASCII);
+		BoggleBatch batch = new BoggleBatch(dictionary, 4, 3);
+		int[] expected = batch.countWords(grids);
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			// WHEN
+			for (int i = 0; i < 100; i++) {
+				// THEN
+				assertArrayEquals(expected, batch.countWords(grids, pool));
+			}
+			assertFalse(pool.isShutdown());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void countsNothingWithoutGrids() throws InterruptedException {
+		// EXPECT
+		assertEquals(0, new BoggleBatch(dictionary, 4).countWords(new byte[0]).length);
+		assertArrayEquals(new int[] { 0 }, new BoggleBatch(dictionary, 1).score(new byte[] { 'a' }));
+	}
+
+	@Test
+	void throwsIllegalArgumentExceptionIfParametersAreIncorrect() {
+		// EXPECT
+		assertThrows(IllegalArgumentException.class, () -> new BoggleBatch(dictionary, 0));
+		assertThrows(IllegalArgumentException.class, () -> new BoggleBatch(null, 4));
+		assertThrows(IllegalArgumentException.class, () -> new BoggleBatch(dictionary, 4, 0));
+		assertThrows(IllegalArgumentException.class, () -> new BoggleBatch(dictionary, 4).countWords(new byte[17]));
+		assertThrows(IllegalArgumentException.class, () -> new BoggleBatch(dictionary, 4).score(null));
+	}
+}
@@ -7,11 +7,13 @@ import tree.LexicographicTree;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 
 public class BoggleTest {
 	private static final String DICTIONARY = "src/main/resources/mots/dictionnaire_FR_sans_accents.txt";
@@ -611,4 +613,73 @@ public class BoggleTest {
 			assertEquals(GRID_LETTERS, b.letters());
 		}
 
+		// SOLVEINPARALLEL TESTS
+		@Test
+		void solvesInParallelLikeSolve() {
+			// GIVEN
+			Boggle b = new Boggle(50, grid50x50, dictionary);
+
+			// WHEN
+			ForkJoinPool pool = new ForkJoinPool(3);
+			Set<String> words;
+			try {
+				words = b.solveInParallel(pool);
+			} finally {
+				pool.shutdown();
+			}
+
+			// THEN
+			assertEquals(b.solve(), words);
+			assertEquals(EXPECTED_WORDS, boggle4X4.solveInParallel());
+			assertEquals(new Boggle(1, "a", dictionary).solve(), new Boggle(1, "a", dictionary).solveInParallel());
+		}
+
+		// SOLVESORTED TESTS
+		@Test
+		void solvesSortedLikeSolve() {
+			// GIVEN
+			Boggle b = new Boggle(50, grid50x50, dictionary);
+
+			// WHEN
+			List<String> words = new ArrayList<>(boggle4X4.solveSorted());
+
+			// THEN
+			assertEquals(new ArrayList<>(new TreeSet<>(EXPECTED_WORDS)), words);
+			assertEquals(b.solve(), b.solveSorted());
+			assertEquals(new ArrayList<>(new TreeSet<>(b.solve())), new ArrayList<>(b.solveSorted()));
+		}
+
+		@Test
+		void solvesSortedWithWordsInsertedAfterwards() {
+			// GIVEN
+			LexicographicTree dict = new LexicographicTree();
+			dict.insertWord("art");
+			Boggle b = new Boggle(2, "arte", dict);
+			assertEquals(Set.of("art"), b.solveSorted());
+
+			// WHEN
+			dict.insertWord("rat");
+			dict.insertWord("art");
+
+			// THEN
+			assertEquals(b.solve(), b.solveSorted());
+			assertEquals(Set.of("art", "rat"), b.solveSorted());
+		}
+
+		@Test
+		void solvesSortedOnLowercaseLettersOnly() {
+			// GIVEN
+			LexicographicTree dict = new LexicographicTree();
+			dict.insertWord("art");
+			dict.insertWord("a-r");
+			Boggle b = new Boggle(2, "a-rt", dict);
+
+			// WHEN
+			Set<String> words = b.solveSorted();
+
+			// THEN
+			assertEquals(Set.of("art"), words);
+			assertEquals(Set.of("art", "a-r"), b.solve());
+		}
+
 }
@@ -0,0 +1,78 @@
+package cryptanalysis;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import tree.LexicographicTree;
+
+public class AlphabetScorerTest {
+	private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+	private static LexicographicTree smallDictionary() {
+		LexicographicTree dict = new LexicographicTree();
+		for (String word : new String[] { "elle", "mot", "tot", "ete", "bus" }) {
+			dict.insertWord(word);
+		}
+		return dict;
+	}
+
+	private static String swap(String alphabet, char a, char b) {
+		char[] letters = alphabet.toCharArray();
+		int i = alphabet.indexOf(a);
+		int j = alphabet.indexOf(b);
+		letters[i] = b;
+		letters[j] = a;
+		return new String(letters);
+	}
+
+	@Test
+	void scoresAllWordsOnReset() {
+		AlphabetScorer scorer = new AlphabetScorer(Arrays.asList("ELLE", "MOT", "XYZ", "BUS"), smallDictionary());
+		List<Integer> matches = new ArrayList<>();
+
+		assertEquals(3, scorer.reset(LETTERS, matches::add));
+		assertEquals(Arrays.asList(0, 1, 3), matches);
+	}
+
+	@Test
+	void rescoresOnlyWordsWithChangedLetters() {
+		AlphabetScorer scorer = new AlphabetScorer(Arrays.asList("ELLE", "MOT", "XYZ", "BUS"), smallDictionary());
+		scorer.reset(LETTERS, w -> {
+		});
+		List<Integer> matches = new ArrayList<>();
+
+		// M <-> T : "MOT" devient "tom", "TOT" n'est pas chiffre, ELLE et BUS ne changent pas
+		assertEquals(2, scorer.score(swap(LETTERS, 'M', 'T'), matches::add));
+		assertEquals(0, matches.size());
+
+		// E <-> T : "ELLE" devient "tllt", "MOT" devient "moe"
+		assertEquals(1, scorer.score(swap(LETTERS, 'E', 'T'), matches::add));
+		// le score d'un candidat ne modifie pas l'alphabet courant
+		assertEquals(3, scorer.score(LETTERS, matches::add));
+	}
+
+	@Test
+	void matchesFullScoreAfterAccept() {
+		List<String> encoded = Arrays.asList("TUUT", "MOC", "COC", "BRS");
+		AlphabetScorer scorer = new AlphabetScorer(encoded, smallDictionary());
+		scorer.reset(LETTERS, w -> {
+		});
+
+		String alphabet = swap(swap(LETTERS, 'T', 'E'), 'U', 'L');
+		assertEquals(1, scorer.accept(alphabet));
+		alphabet = swap(alphabet, 'C', 'T');
+		int incremental = scorer.score(alphabet, w -> {
+		});
+		assertEquals(incremental, scorer.accept(alphabet));
+
+		AlphabetScorer fresh = new AlphabetScorer(encoded, smallDictionary());
+		assertEquals(fresh.reset(alphabet, w -> {
+		}), incremental);
+		assertEquals(3, incremental);
+	}
+}
@@ -0,0 +1,149 @@
+package cryptanalysis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import tree.LexicographicTree;
+
+public class BatchDecryptionTest {
+	private static final String DICTIONARY = "src/main/resources/mots/dictionnaire_FR_sans_accents.txt";
+	private static final String CRYPTOGRAM_FILE = "src/main/resources/text/Plus fort que Sherlock Holmes (cryptogram).txt";
+
+	private static LexicographicTree dictionary;
+
+	@BeforeAll
+	public static void initTestDictionary() {
+		dictionary = new LexicographicTree(DICTIONARY);
+	}
+
+	@Test
+	void decryptsEveryFileOfDirectory(@TempDir Path directory) throws IOException, InterruptedException {
+		String cryptogram = Files.readString(Paths.get(CRYPTOGRAM_FILE));
+		for (int i = 0; i < 5; i++) {
+			Files.writeString(directory.resolve("crypto" + i + ".txt"), cryptogram.substring(i * 20000, i * 20000 + 20000));
+		}
+		Files.writeString(directory.resolve("vide.txt"), "");
+		Files.createDirectory(directory.resolve("sous-repertoire"));
+		List<BatchDecryption.Result> results = Collections.synchronizedList(new ArrayList<>());
+
+		long count = new BatchDecryption(dictionary, 2).decryptDirectory(directory, results::add);
+
+		assertEquals(6, count);
+		assertEquals(6, results.size());
+		for (BatchDecryption.Result result : results) {
+			assertFalse(result.isError(), result.toString());
+			assertTrue(DictionaryBasedAnalysis.checkAlphabet(result.getAlphabet()));
+			assertTrue(result.getScore() <= result.getWordCount());
+			if (!result.getFile().endsWith("vide.txt"))
+				assertTrue(result.getScore() > result.getWordCount() / 2, result.toString());
+		}
+	}
+
+	@Test
+	void boundsFilesInProgress(@TempDir Path directory) throws IOException, InterruptedException {
+		Files.writeString(directory.resolve("crypto.txt"), "UMOYBUM PMBZJPDC FOOMUFYDMOMBD");
+		AtomicInteger started = new AtomicInteger();
+		AtomicInteger done = new AtomicInteger();
+		AtomicInteger maxAhead = new AtomicInteger();
+		Iterator<Path> files = new Iterator<Path>() {
+			@Override
+			public boolean hasNext() {
+				return started.get() < 50;
+			}
+
+			@Override
+			public Path next() {
+				maxAhead.accumulateAndGet(started.incrementAndGet() - done.get(), Math::max);
+				return directory.resolve("crypto.txt");
+			}
+		};
+
+		long count = new BatchDecryption(dictionary, 2).decrypt(files, result -> done.incrementAndGet());
+
+		assertEquals(50, count);
+		assertEquals(50, done.get());
+		assertTrue(maxAhead.get() <= 4, "trop de fichiers en cours [" + maxAhead.get() + "]");
+	}
+
+	@Test
+	void waitsForSubmittedFilesWhenInterrupted(@TempDir Path directory) throws IOException {
+		Files.writeString(directory.resolve("crypto.txt"), "UMOYBUM PMBZJPDC FOOMUFYDMOMBD");
+		AtomicInteger started = new AtomicInteger();
+		AtomicInteger done = new AtomicInteger();
+		Iterator<Path> files = new Iterator<Path>() {
+			@Override
+			public boolean hasNext() {
+				return started.get() < 50;
+			}
+
+			@Override
+			public Path next() {
+				started.incrementAndGet();
+				return directory.resolve("crypto.txt");
+			}
+		};
+		Thread caller = Thread.currentThread();
+
+		assertThrows(InterruptedException.class, () -> new BatchDecryption(dictionary, 2).decrypt(files, result -> {
+			done.incrementAndGet();
+			caller.interrupt();
+		}));
+
+		assertTrue(started.get() < 50);
+		assertEquals(started.get(), done.get());
+		// les analyses terminees apres la premiere ont aussi interrompu l'appelant
+		Thread.interrupted();
+	}
+
+	@Test
+	void rethrowsSinkFailuresAfterBatch(@TempDir Path directory) throws IOException, InterruptedException {
+		for (int i = 0; i < 6; i++) {
+			Files.writeString(directory.resolve("crypto" + i + ".txt"), "UMOYBUM PMBZJPDC FOOMUFYDMOMBD");
+		}
+		AtomicInteger delivered = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			BatchDecryption batch = new BatchDecryption(dictionary, 2);
+
+			IllegalStateException failure = assertThrows(IllegalStateException.class,
+					() -> batch.decryptDirectory(directory, result -> {
+						if (delivered.incrementAndGet() % 2 == 0)
+							throw new UnsupportedOperationException(result.getFile().toString());
+					}, pool));
+
+			assertEquals(6, delivered.get());
+			assertTrue(failure.getCause() instanceof UnsupportedOperationException);
+			assertEquals(2, failure.getSuppressed().length);
+			assertFalse(pool.isShutdown());
+			assertEquals(6, batch.decryptDirectory(directory, result -> {
+			}, pool));
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void reportsUnreadableFileAsError(@TempDir Path directory) {
+		BatchDecryption.Result result = new BatchDecryption(dictionary, 1).decrypt(directory.resolve("absent.txt"));
+
+		assertTrue(result.isError());
+		assertNull(result.getAlphabet());
+		assertTrue(result.toString().contains("NoSuchFileException"));
+		assertThrows(IllegalArgumentException.class, () -> new BatchDecryption(dictionary, 0));
+	}
+}
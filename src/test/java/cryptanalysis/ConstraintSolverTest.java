@@ -0,0 +1,83 @@
+package cryptanalysis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import tree.LexicographicTree;
+
+public class ConstraintSolverTest {
+	private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+	private static final String DICTIONARY = "src/main/resources/mots/dictionnaire_FR_sans_accents.txt";
+	private static final String CRYPTOGRAM_FILE = "src/main/resources/text/Plus fort que Sherlock Holmes (cryptogram).txt";
+	private static final String ENCODING_ALPHABET = "YESUMZRWFNVHOBJTGPCDLAIXQK"; // Sherlock
+	private static final String DECODING_ALPHABET = "VNSTBIQLWOZUEJMRYGCPDKHXAF"; // Sherlock
+
+	private static PatternIndex patternIndex;
+	private static String cryptogram;
+
+	@BeforeAll
+	public static void init() throws IOException {
+		patternIndex = PatternIndex.of(new LexicographicTree(DICTIONARY));
+		cryptogram = Files.readString(Paths.get(CRYPTOGRAM_FILE));
+	}
+
+	@Test
+	void solvesLettersOfSherlockExcerpt() {
+		ConstraintSolver solver = new ConstraintSolver(cryptogram.substring(0, 3000), patternIndex);
+
+		String key = solver.solve();
+
+		int known = 0;
+		for (int i = 0; i < 26; i++) {
+			if (key.charAt(i) != '.') {
+				known++;
+				assertEquals(DECODING_ALPHABET.charAt(i), key.charAt(i), "lettre " + (char) ('A' + i));
+			}
+		}
+		assertTrue(known >= 20, "Moins de 20 lettres trouvées [" + known + "]");
+	}
+
+	@Test
+	void completesKeyWithStartAlphabet() {
+		ConstraintSolver solver = new ConstraintSolver(cryptogram.substring(0, 3000), patternIndex);
+		String key = solver.solve();
+
+		String alphabet = solver.search(LETTERS);
+
+		assertTrue(DictionaryBasedAnalysis.checkAlphabet(alphabet));
+		for (int i = 0; i < 26; i++) {
+			if (key.charAt(i) != '.')
+				assertEquals(key.charAt(i), alphabet.charAt(i));
+		}
+		assertEquals(DECODING_ALPHABET, solver.search(DECODING_ALPHABET));
+	}
+
+	@Test
+	void solvesSmallDictionaryExactly() {
+		LexicographicTree dict = new LexicographicTree();
+		for (String word : new String[] { "elle", "alla", "salle", "sel", "les", "mer" }) {
+			dict.insertWord(word);
+		}
+		String encoded = DictionaryBasedAnalysis.applySubstitution("ELLE SALLE", ENCODING_ALPHABET);
+		ConstraintSolver solver = new ConstraintSolver(encoded, new PatternIndex(dict));
+
+		String alphabet = solver.search(LETTERS);
+
+		assertEquals(2, solver.constraintCount());
+		assertEquals("ELLE SALLE", DictionaryBasedAnalysis.applySubstitution(encoded, alphabet));
+	}
+
+	@Test
+	void refusesIncorrectParameters() {
+		assertThrows(IllegalArgumentException.class, () -> new ConstraintSolver(cryptogram, patternIndex, 0, 10, 0));
+		assertThrows(IllegalArgumentException.class, () -> new ConstraintSolver(cryptogram, patternIndex, 10, 0, 0));
+		assertThrows(IllegalArgumentException.class, () -> new ConstraintSolver(cryptogram, patternIndex, 10, 10, -1));
+		assertThrows(IllegalArgumentException.class, () -> new ConstraintSolver("", patternIndex).search("ABC"));
+	}
+}
@@ -4,10 +4,15 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.jupiter.api.BeforeAll;
 
@@ -241,13 +246,159 @@ public class DictionaryBasedAnalysisTest {
 			});
 		}
 
+	// CANDIDATES TESTS
+		@Test
+		void enumeratesCandidatesConsistentWithPartialKey() {
+			// GIVEN
+			DictionaryBasedAnalysis dba = new DictionaryBasedAnalysis(cryptogramText, dictionary);
+			String noKey = "..........................";
+			// M -> E confirme (voir DECODING_ALPHABET)
+			String partialKey = "............E.............";
+
+			// WHEN
+			List<String> all = dba.candidates("UMOYBUM", noKey);
+			List<String> withKey = dba.candidates("UMOYBUM", partialKey);
+
+			// THEN
+			assertTrue(all.contains("demande"));
+			assertTrue(withKey.contains("demande"));
+			assertTrue(withKey.size() < all.size());
+			for (String word : withKey) {
+				assertEquals('e', word.charAt(1), word);
+				assertEquals('e', word.charAt(6), word);
+			}
+		}
 
+		@Test
+		void enumeratesCandidatesWithoutRepeatedLetters() {
+			// GIVEN
+			DictionaryBasedAnalysis dba = new DictionaryBasedAnalysis(cryptogramText, dictionary);
 
+			// WHEN
+			List<String> words = dba.candidates("OYPV", "..........................");
 
-		
+			// THEN
+			assertTrue(words.contains("mari"));
+			assertTrue(words.size() > 100);
+			assertEquals(words, dba.candidates("OYPV"));
+		}
 
+		@Test
+		void throwsIfPartialKeyIsInvalid() {
+			DictionaryBasedAnalysis dba = new DictionaryBasedAnalysis(cryptogramText, dictionary);
+			assertThrows(IllegalArgumentException.class, () -> dba.candidates("OYPV", "ABC"));
+			assertThrows(IllegalArgumentException.class, () -> dba.candidates("OYPV", null));
+		}
 
+		@Test
+		void guessApproximatedAlphabetWithSeveralCandidatesPerWord() {
+			DictionaryBasedAnalysis dba = new DictionaryBasedAnalysis(cryptogramText, dictionary);
+			String alphabet = dba.guessApproximatedAlphabet(LETTERS, 3);
+			int score = 0;
+			for (int i = 0; i < DECODING_ALPHABET.length(); i++) {
+				if (DECODING_ALPHABET.charAt(i) == alphabet.charAt(i)) score++;
+			}
+			assertTrue(score >= 9, "Moins de 9 correspondances trouvées [" + score + "]");
+			assertThrows(IllegalArgumentException.class, () -> dba.guessApproximatedAlphabet(LETTERS, 0));
+		}
 
+		@Test
+		void severalCandidatesPerWordBeatTheFirstMatchOnAShortCryptogram() {
+			// GIVEN
+			String text = cryptogramText.substring(50000, 51600);
+			text = text.substring(text.indexOf(' ') + 1, text.lastIndexOf(' '));
+			DictionaryBasedAnalysis dba = new DictionaryBasedAnalysis(text, dictionary);
+
+			// WHEN
+			String first = dba.guessApproximatedAlphabet(LETTERS, 1);
+			String several = dba.guessApproximatedAlphabet(LETTERS, 3);
+
+			// THEN
+			assertTrue(dba.score(several) > dba.score(first) + dba.wordCount() / 3,
+					dba.score(several) + " mots contre " + dba.score(first));
+			int firstLetters = 0;
+			int severalLetters = 0;
+			for (int i = 0; i < DECODING_ALPHABET.length(); i++) {
+				if (DECODING_ALPHABET.charAt(i) == first.charAt(i)) firstLetters++;
+				if (DECODING_ALPHABET.charAt(i) == several.charAt(i)) severalLetters++;
+			}
+			assertTrue(severalLetters > firstLetters, severalLetters + " lettres contre " + firstLetters);
+		}
 
-	
+	// BYTE API TESTS
+		@Test
+		void guessesTheSameAlphabetFromAsciiBytes() throws IOException {
+			// GIVEN
+			ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(Paths.get(CRYPTOGRAM_FILE)));
+
+			// WHEN
+			String fromBytes = new DictionaryBasedAnalysis(bytes, dictionary).guessApproximatedAlphabet(LETTERS);
+			String fromString = new DictionaryBasedAnalysis(cryptogramText, dictionary).guessApproximatedAlphabet(LETTERS);
+
+			// THEN
+			assertEquals(fromString, fromBytes);
+			assertEquals(0, bytes.position());
+		}
+
+		@Test
+		void appliesSubstitutionToAsciiBytes() {
+			// GIVEN
+			String message = "DEMANDE RENFORTS IMMEDIATEMENT";
+			ByteBuffer out = ByteBuffer.allocate(message.length());
+
+			// WHEN
+			int length = DictionaryBasedAnalysis.applySubstitution(
+					ByteBuffer.wrap(message.getBytes(StandardCharsets.US_ASCII)), out, ENCODING_ALPHABET);
+
+			// THEN
+			assertEquals("UMOYBUM PMBZJPDC FOOMUFYDMOMBD", new String(out.array(), 0, length, StandardCharsets.US_ASCII));
+		}
+
+	// PARALLEL GUESS TESTS
+		@Test
+		void guessesAlphabetFromSeveralStartsInParallel() {
+			// GIVEN
+			DictionaryBasedAnalysis dba = new DictionaryBasedAnalysis(cryptogramText, dictionary);
+			ExecutorService pool = Executors.newFixedThreadPool(2);
+
+			// WHEN
+			String alphabet = dba.guessApproximatedAlphabetInParallel(4, 1, Duration.ofMinutes(1), pool);
+			pool.shutdown();
+
+			// THEN
+			int score = 0;
+			for (int i = 0; i < DECODING_ALPHABET.length(); i++) {
+				if (DECODING_ALPHABET.charAt(i) == alphabet.charAt(i)) score++;
+			}
+			assertTrue(score >= 9, "Moins de 9 correspondances trouvées [" + score + "]");
+		}
+
+		@Test
+		void returnsAnAlphabetWhenTimeBudgetIsExhausted() {
+			// GIVEN
+			DictionaryBasedAnalysis dba = new DictionaryBasedAnalysis(cryptogramText, dictionary);
+
+			// WHEN
+			String alphabet = dba.guessApproximatedAlphabetInParallel(3, 1, Duration.ZERO);
+
+			// THEN
+			assertTrue(DictionaryBasedAnalysis.checkAlphabet(alphabet));
+			assertThrows(IllegalArgumentException.class, () -> dba.guessApproximatedAlphabetInParallel(0, 1, Duration.ZERO));
+			assertThrows(IllegalArgumentException.class, () -> dba.guessApproximatedAlphabetInParallel(2, 0, Duration.ZERO));
+		}
+
+		@Test
+		void stopsAllStartsOnceEveryWordIsDecoded() {
+			// GIVEN
+			DictionaryBasedAnalysis dba = new DictionaryBasedAnalysis("UMOYBUM FOOMUFYDMOMBD", dictionary);
+
+			// WHEN
+			String alphabet = dba.guessApproximatedAlphabetInParallel(8, 5, Duration.ofMinutes(1));
+
+			// THEN
+			for (String encoded : new String[] { "UMOYBUM", "FOOMUFYDMOMBD" }) {
+				String word = DictionaryBasedAnalysis.applySubstitution(encoded, alphabet).toLowerCase();
+				assertTrue(dictionary.containsWord(word), word);
+			}
+		}
 }
@@ -0,0 +1,63 @@
+package cryptanalysis;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+public class NGramModelTest {
+	private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+	private static final String CORPUS_FILE = "src/main/resources/text/Plus fort que Sherlock Holmes.txt";
+	private static final String CRYPTOGRAM_FILE = "src/main/resources/text/Plus fort que Sherlock Holmes (cryptogram).txt";
+	private static final String DECODING_ALPHABET = "VNSTBIQLWOZUEJMRYGCPDKHXAF"; // Sherlock
+
+	@Test
+	void countsNGramsInsideLetterRuns() {
+		NGramModel model = NGramModel.learn(Arrays.asList("abcd", "ab-cd", "Élève"));
+
+		// a, b, c, d deux fois chacune, e deux fois, l et v une fois
+		assertEquals(Math.log(2.0 / 13), model.unigrams()[0], 1e-6);
+		assertEquals(Math.log(1.0 / 13), model.unigrams()['l' - 'a'], 1e-6);
+		// bigrammes : ab ab bc cd cd el le ev ve
+		assertEquals(Math.log(2.0 / 9), model.bigrams()[0 * 26 + 1], 1e-6);
+		assertEquals(Math.log(0.01 / 9), model.bigrams()[1 * 26 + 0], 1e-6);
+		// quadrigrammes : abcd elev leve
+		assertEquals(Math.log(1.0 / 3), model.quadgrams()[((0 * 26 + 1) * 26 + 2) * 26 + 3], 1e-6);
+		assertEquals(26 * 26 * 26 * 26, model.quadgrams().length);
+	}
+
+	@Test
+	void scoresTheRightAlphabetHigher() throws IOException {
+		NGramModel model = NGramModel.fromCorpus(Paths.get(CORPUS_FILE), StandardCharsets.UTF_8);
+		String cryptogram = Files.readString(Paths.get(CRYPTOGRAM_FILE));
+		byte[] codes = NGramModel.codes(cryptogram);
+
+		double right = model.score(codes, NGramModel.key(DECODING_ALPHABET));
+		assertEquals(right, model.score(cryptogram, DECODING_ALPHABET), 1e-6);
+		assertTrue(right > model.score(codes, NGramModel.key(LETTERS)));
+		assertTrue(right > model.score(cryptogram, "VNSTBIQLWOZUEJMRYGCPDKHXFA"));
+	}
+
+	@Test
+	void seedsAlphabetFromLetterFrequencies() throws IOException {
+		NGramModel model = NGramModel.fromCorpus(Paths.get(CORPUS_FILE), StandardCharsets.UTF_8);
+		String cryptogram = Files.readString(Paths.get(CRYPTOGRAM_FILE));
+
+		String alphabet = model.frequencyAlphabet(cryptogram);
+
+		assertTrue(DictionaryBasedAnalysis.checkAlphabet(alphabet));
+		// la lettre chiffree la plus frequente (M) se dechiffre en E
+		assertEquals('E', alphabet.charAt('M' - 'A'));
+	}
+
+	@Test
+	void refusesIncorrectKey() {
+		assertThrows(IllegalArgumentException.class, () -> NGramModel.key("ABC"));
+		assertArrayEquals(new byte[] { 0, 1, -1, 25 }, NGramModel.codes("aB-z"));
+	}
+}
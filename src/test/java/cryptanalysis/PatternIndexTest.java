@@ -0,0 +1,68 @@
+package cryptanalysis;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import tree.LexicographicTree;
+
+public class PatternIndexTest {
+
+	private static LexicographicTree smallDictionary() {
+		LexicographicTree dict = new LexicographicTree();
+		for (String word : new String[] { "elle", "alla", "belle", "mot", "tot", "a-la", "ete" }) {
+			dict.insertWord(word);
+		}
+		return dict;
+	}
+
+	@Test
+	void computesPatterns() {
+		assertEquals("abba", PatternIndex.pattern("elle"));
+		assertEquals("abba", PatternIndex.pattern("MOOM"));
+		assertEquals("abcdefg", PatternIndex.pattern("artxyzw"));
+		assertEquals("abcdecf", PatternIndex.pattern("artiste"));
+		assertEquals("", PatternIndex.pattern(""));
+	}
+
+	@Test
+	void detectsRepetition() {
+		assertTrue(PatternIndex.hasRepetition("abba"));
+		assertTrue(PatternIndex.hasRepetition("abcdecf"));
+		assertFalse(PatternIndex.hasRepetition("abc"));
+		assertFalse(PatternIndex.hasRepetition(""));
+	}
+
+	@Test
+	void findsCandidatesOfSamePattern() {
+		PatternIndex index = new PatternIndex(smallDictionary());
+
+		assertEquals(Arrays.asList("alla", "elle"), index.candidates("XQQX"));
+		assertEquals(Arrays.asList("ete", "tot"), index.candidates("ABA"));
+		assertEquals(Arrays.asList("mot"), index.candidates("ABC"));
+		assertEquals(0, index.candidates("ABCDEFGH").size());
+		assertThrows(UnsupportedOperationException.class, () -> index.candidates("ABA").add("non"));
+	}
+
+	@Test
+	void ignoresWordsWithOtherCharacters() {
+		PatternIndex index = new PatternIndex(smallDictionary());
+		assertFalse(index.candidates("ABCA").contains("a-la"));
+	}
+
+	@Test
+	void sharesIndexUntilDictionaryChanges() {
+		LexicographicTree dict = smallDictionary();
+		PatternIndex index = PatternIndex.of(dict);
+
+		assertSame(index, PatternIndex.of(dict));
+		assertNotSame(index, PatternIndex.of(smallDictionary()));
+
+		dict.insertWord("sos");
+		PatternIndex rebuilt = PatternIndex.of(dict);
+		assertNotSame(index, rebuilt);
+		assertEquals(Arrays.asList("ete", "sos", "tot"), rebuilt.candidates("ABA"));
+	}
+}
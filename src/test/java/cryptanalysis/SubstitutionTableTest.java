@@ -0,0 +1,73 @@
+package cryptanalysis;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class SubstitutionTableTest {
+	private static final String ENCODING_ALPHABET = "YESUMZRWFNVHOBJTGPCDLAIXQK";
+
+	@Test
+	void substitutesLikeApplySubstitution() {
+		SubstitutionTable table = SubstitutionTable.of(ENCODING_ALPHABET);
+		String text = "UN PETIT TEXTE\nAVEC-DES signes, 123 !";
+
+		assertEquals(DictionaryBasedAnalysis.applySubstitution(text, ENCODING_ALPHABET), table.apply(text));
+		assertEquals("LB TMDFD DMXDM\nYAMSUMC   ", table.apply(text));
+		assertEquals('Y', table.substitute('A'));
+		assertEquals(' ', table.substitute(' '));
+		assertEquals(0, table.substitute('a'));
+		assertEquals(0, table.substitute('é'));
+	}
+
+	@Test
+	void writesIntoBuffer() {
+		SubstitutionTable table = SubstitutionTable.of(ENCODING_ALPHABET);
+		CharBuffer out = CharBuffer.allocate(8);
+		out.put('>');
+
+		assertEquals(5, table.apply("A-B C!D", out));
+		assertEquals(">YE SU", out.flip().toString());
+		assertThrows(BufferOverflowException.class, () -> table.apply("ABCDEFGHIJ", CharBuffer.allocate(4)));
+	}
+
+	@Test
+	void substitutesInPlace() {
+		SubstitutionTable table = SubstitutionTable.of(ENCODING_ALPHABET);
+		char[] text = "##AB-C D##".toCharArray();
+
+		int end = table.applyInPlace(text, 2, 8);
+		assertEquals(7, end);
+		assertEquals("##YES U", new String(text, 0, end));
+		assertEquals(end, table.applyInPlace(text, end, end));
+		assertThrows(IndexOutOfBoundsException.class, () -> table.applyInPlace(text, 4, 20));
+	}
+
+	@Test
+	void substitutesAsciiBytes() {
+		SubstitutionTable table = SubstitutionTable.of(ENCODING_ALPHABET);
+		byte[] text = "AB-C D\u00e9".getBytes(StandardCharsets.ISO_8859_1);
+		ByteBuffer out = ByteBuffer.allocate(8);
+
+		assertEquals(5, table.apply(ByteBuffer.wrap(text), out));
+		assertEquals("YES U", new String(out.array(), 0, out.position(), StandardCharsets.US_ASCII));
+
+		int end = table.applyInPlace(text, 0, text.length);
+		assertEquals("YES U", new String(text, 0, end, StandardCharsets.US_ASCII));
+	}
+
+	@Test
+	void refusesIncorrectAlphabets() {
+		assertThrows(IllegalArgumentException.class, () -> SubstitutionTable.of(null));
+		assertThrows(IllegalArgumentException.class, () -> SubstitutionTable.of("ABC"));
+		assertThrows(IllegalArgumentException.class, () -> SubstitutionTable.of("YESUMZRWFNVHOBJTGPCDLAIXQJ"));
+		assertThrows(IllegalArgumentException.class, () -> SubstitutionTable.of("YESUMZRWFNVHOBJTGPCDLAIXQé"));
+		assertThrows(IllegalArgumentException.class, () -> SubstitutionTable.of("yesumzrwfnvhobjtgpcdlaixqY"));
+		assertEquals("yesumzrwfnvhobjtgpcdlaixqk", SubstitutionTable.of("yesumzrwfnvhobjtgpcdlaixqk").getAlphabet());
+	}
+}
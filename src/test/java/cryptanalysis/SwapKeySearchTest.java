@@ -0,0 +1,91 @@
+package cryptanalysis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import tree.LexicographicTree;
+
+public class SwapKeySearchTest {
+	private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+	private static final String DICTIONARY = "src/main/resources/mots/dictionnaire_FR_sans_accents.txt";
+	private static final String CRYPTOGRAM_FILE = "src/main/resources/text/Plus fort que Sherlock Holmes (cryptogram).txt";
+	private static final String DECODING_ALPHABET = "VNSTBIQLWOZUEJMRYGCPDKHXAF"; // Sherlock
+
+	private static LexicographicTree dictionary;
+	private static String cryptogram;
+	private static NGramModel model;
+	private static float[] bigrams;
+
+	@BeforeAll
+	public static void init() throws IOException {
+		dictionary = new LexicographicTree(DICTIONARY);
+		cryptogram = Files.readString(Paths.get(CRYPTOGRAM_FILE));
+		model = NGramModel.fromDictionary(dictionary);
+		bigrams = model.bigrams();
+	}
+
+	private static int correctLetters(String alphabet) {
+		int score = 0;
+		for (int i = 0; i < DECODING_ALPHABET.length(); i++) {
+			if (DECODING_ALPHABET.charAt(i) == alphabet.charAt(i))
+				score++;
+		}
+		return score;
+	}
+
+	@Test
+	void findsSherlockAlphabetByAnnealing() {
+		SwapKeySearch engine = new SwapKeySearch(cryptogram, bigrams, 200_000, 20, 0);
+
+		String alphabet = engine.search(LETTERS);
+
+		assertTrue(correctLetters(alphabet) >= 20, "Moins de 20 correspondances trouvées [" + correctLetters(alphabet) + "]");
+		assertTrue(engine.score(alphabet) >= engine.score(LETTERS));
+	}
+
+	@Test
+	void hillClimbingNeverLowersScore() {
+		String start = "QWERTYUIOPASDFGHJKLZXCVBNM";
+		SwapKeySearch engine = new SwapKeySearch(cryptogram, bigrams, 10_000, 0, 42);
+
+		assertTrue(engine.score(engine.search(start)) >= engine.score(start));
+		assertEquals(start, new SwapKeySearch(cryptogram, bigrams, 0, 0, 42).search(start));
+	}
+
+	@Test
+	void confirmsResultWithDictionary() {
+		KeySearchEngine engine = new SwapKeySearch(cryptogram, bigrams, 200_000, 20, 1)
+				.andThen(new DictionaryBasedAnalysis(cryptogram, dictionary));
+
+		String alphabet = engine.search(LETTERS);
+
+		assertTrue(correctLetters(alphabet) >= 20, "Moins de 20 correspondances trouvées [" + correctLetters(alphabet) + "]");
+	}
+
+	@Test
+	void polishesAnnealingWithQuadgrams() {
+		String annealed = new SwapKeySearch(cryptogram, bigrams, 20_000, 20, 0).search(LETTERS);
+		SwapKeySearch engine = new SwapKeySearch(cryptogram, model, 20_000, 20, 0);
+
+		String alphabet = engine.search(LETTERS);
+
+		assertTrue(correctLetters(annealed) < 26);
+		assertEquals(DECODING_ALPHABET, alphabet);
+		assertTrue(model.score(cryptogram, alphabet) > model.score(cryptogram, annealed));
+	}
+
+	@Test
+	void refusesIncorrectParameters() {
+		assertThrows(IllegalArgumentException.class, () -> new SwapKeySearch(cryptogram, new float[10]));
+		assertThrows(IllegalArgumentException.class, () -> new SwapKeySearch(cryptogram, bigrams, -1, 0, 0));
+		SwapKeySearch engine = new SwapKeySearch(cryptogram, bigrams);
+		assertThrows(IllegalArgumentException.class, () -> engine.search("ABC"));
+		assertThrows(IllegalArgumentException.class, () -> engine.search("AACDEFGHIJKLMNOPQRSTUVWXYZ"));
+	}
+}
@@ -0,0 +1,107 @@
+package tree;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+public class DawgTest {
+	private static final String[] WORDS = new String[] { "a-cote", "aide", "as", "au", "aujourd'hui", "aux", "bu",
+			"bus", "but", "cote", "et", "ete" };
+	private static final String FILENAME = "src/main/resources/mots/dictionnaire_FR_sans_accents.txt";
+
+	private static final Dawg DAWG = Dawg.fromSorted(Arrays.asList(WORDS));
+
+	@Test
+	void keepsSize() {
+		assertEquals(WORDS.length, DAWG.size());
+		assertEquals(0, Dawg.fromSorted(List.of()).size());
+	}
+
+	@Test
+	void containsWords() {
+		for (String word : WORDS) {
+			assertTrue(DAWG.containsWord(word), "Mot " + word + " non trouvé");
+		}
+		for (String word : new String[] { "", "aid", "ai", "aides", "mot", "e", "cot", "cotes" }) {
+			assertFalse(DAWG.containsWord(word), "Mot " + word + " inexistant trouvé");
+		}
+	}
+
+	@Test
+	void getsWordsLikeTheTree() {
+		assertArrayEquals(WORDS, DAWG.getWords("").toArray());
+		assertArrayEquals(new String[] { "bu", "bus", "but" }, DAWG.getWords("bu").toArray());
+		assertArrayEquals(new String[] { "aux", "bus", "but", "ete" }, DAWG.getWordsOfLength(3).toArray());
+		assertTrue(DAWG.isPrefix("bu"));
+		assertFalse(DAWG.isPrefix("but"));
+	}
+
+	@Test
+	void containsAsciiBytesLikeTheTree() {
+		LexicographicTree tree = new LexicographicTree();
+		for (String word : WORDS) {
+			tree.insertWord(word);
+		}
+		byte[] text = "LE BUS AUJOURD'HUI A-COTE bu\u00e9s Aide ete".getBytes(StandardCharsets.ISO_8859_1);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(text.length).put(text);
+
+		for (int off = 0; off < text.length; off++) {
+			for (int len = 0; off + len <= text.length; len++) {
+				boolean expected = tree.getRoot().containsWord(text, off, len);
+				assertEquals(expected, DAWG.containsWord(text, off, len), off + "+" + len);
+				assertEquals(expected, DAWG.containsWord(buffer, off, len), off + "+" + len);
+			}
+		}
+		assertTrue(DAWG.containsWord(text, 7, 11));
+		assertThrows(IndexOutOfBoundsException.class, () -> DAWG.containsWord(text, text.length, 1));
+		assertEquals(text.length, buffer.position());
+	}
+
+	@Test
+	void sharesCommonSuffixes() {
+		Dawg dawg = Dawg.fromSorted(Arrays.asList("chanta", "chante", "danta", "dante"));
+		// apres "ch" et apres "d" il reste les memes suffixes "anta" et "ante"
+		assertEquals(4, dawg.size());
+		assertEquals(7, dawg.stateCount());
+		assertArrayEquals(new String[] { "danta", "dante" }, dawg.getWords("d").toArray());
+	}
+
+	@Test
+	void ignoresEmptyAndDuplicateWords() {
+		Dawg dawg = Dawg.fromSorted(Arrays.asList("", "  ", "bu", "bu", "bus"));
+		assertEquals(2, dawg.size());
+		assertFalse(dawg.containsWord("  "));
+	}
+
+	@Test
+	void throwsIfWordsAreNotSorted() {
+		assertThrows(IllegalArgumentException.class, () -> Dawg.fromSorted(Arrays.asList("bus", "bu")));
+		assertThrows(IllegalArgumentException.class, () -> Dawg.fromSorted(Arrays.asList("bus", "au")));
+	}
+
+	@Test
+	void answersLikeTheTreeOnTheWholeDictionary() throws IOException {
+		LexicographicTree tree = new LexicographicTree(FILENAME);
+		Dawg dawg = Dawg.load(Paths.get(FILENAME));
+
+		assertEquals(tree.size(), dawg.size());
+		assertTrue(dawg.stateCount() < tree.freeze().nodeCount() / 4);
+		assertEquals(tree.getWords(""), dawg.getWords(""));
+		assertEquals(tree.getWords("chant"), dawg.getWords("chant"));
+		for (int n = 0; n <= 28; n++) {
+			assertEquals(tree.getWordsOfLength(n), dawg.getWordsOfLength(n));
+		}
+		for (String word : Files.readAllLines(Paths.get(FILENAME))) {
+			assertTrue(dawg.containsWord(word), word);
+			assertFalse(dawg.containsWord(word + "xx"), word + "xx");
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package tree;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.io.TempDir;
+
+public class FrozenLexicographicTreeTest {
+	private static final String[] WORDS = new String[] { "a-cote", "aide", "as", "au", "aujourd'hui", "aux", "bu",
+			"bus", "but", "cote", "et", "ete" };
+	private static final String FILENAME = "src/main/resources/mots/dictionnaire_FR_sans_accents.txt";
+
+	private static FrozenLexicographicTree frozen;
+
+	@BeforeAll
+	public static void initTestDictionary() {
+		LexicographicTree tree = new LexicographicTree();
+		for (String word : WORDS) {
+			tree.insertWord(word);
+		}
+		frozen = tree.freeze();
+	}
+
+	@Test
+	void keepsSize() {
+		assertEquals(WORDS.length, frozen.size());
+		assertEquals(0, new LexicographicTree().freeze().size());
+	}
+
+	@Test
+	void containsWords() {
+		for (String word : WORDS) {
+			assertTrue(frozen.containsWord(word), "Mot " + word + " non trouvé");
+		}
+		for (String word : new String[] { "", "aid", "ai", "aides", "mot", "e" }) {
+			assertFalse(frozen.containsWord(word), "Mot " + word + " inexistant trouvé");
+		}
+		assertTrue(frozen.containsWord("xxbusxx", 2, 5));
+	}
+
+	@Test
+	void findsPrefixes() {
+		assertTrue(frozen.isPrefix("bu"));
+		assertTrue(frozen.isPrefix(""));
+		assertFalse(frozen.isPrefix("but"));
+		assertFalse(frozen.isPrefix("x"));
+		assertFalse(frozen.isPrefix(null));
+	}
+
+	@Test
+	void getsWordsInAlphabeticalOrder() {
+		assertArrayEquals(WORDS, frozen.getWords("").toArray());
+		assertArrayEquals(new String[] { "bu", "bus", "but" }, frozen.getWords("bu").toArray());
+		assertEquals(0, frozen.getWords("x").size());
+		assertThrows(NullPointerException.class, () -> frozen.getWords(null));
+	}
+
+	@Test
+	void getsWordsOfLength() {
+		assertArrayEquals(new String[] { "aux", "bus", "but", "ete" }, frozen.getWordsOfLength(3).toArray());
+		assertEquals(0, frozen.getWordsOfLength(0).size());
+		assertEquals(0, frozen.getWordsOfLength(35).size());
+	}
+
+	@Test
+	void answersLikeTheTreeOnTheWholeDictionary() throws IOException {
+		LexicographicTree tree = new LexicographicTree(FILENAME);
+		FrozenLexicographicTree dict = tree.freeze();
+
+		assertEquals(tree.size(), dict.size());
+		assertEquals(tree.getWords(""), dict.getWords(""));
+		for (int n = 0; n <= 28; n++) {
+			assertEquals(tree.getWordsOfLength(n), dict.getWordsOfLength(n));
+		}
+		List<String> lines = Files.readAllLines(Paths.get(FILENAME));
+		for (String word : lines) {
+			assertTrue(dict.containsWord(word), word);
+			assertFalse(dict.containsWord(word + "xx"), word + "xx");
+		}
+	}
+
+	@Test
+	void savesAndMapsSnapshot(@TempDir Path directory) throws IOException {
+		Path snapshot = directory.resolve("dico.bin");
+		frozen.save(snapshot);
+		FrozenLexicographicTree mapped = FrozenLexicographicTree.map(snapshot);
+
+		assertEquals(frozen.size(), mapped.size());
+		assertEquals(frozen.nodeCount(), mapped.nodeCount());
+		assertArrayEquals(WORDS, mapped.getWords("").toArray());
+		assertArrayEquals(new String[] { "aux", "bus", "but", "ete" }, mapped.getWordsOfLength(3).toArray());
+		assertTrue(mapped.containsWord("aujourd'hui"));
+		assertFalse(mapped.containsWord("aujourd"));
+		assertTrue(mapped.isPrefix("aujourd"));
+	}
+
+	@Test
+	void containsAsciiBytesLikeTheTree(@TempDir Path directory) throws IOException {
+		LexicographicTree tree = new LexicographicTree();
+		for (String word : WORDS) {
+			tree.insertWord(word);
+		}
+		Path snapshot = directory.resolve("dico.bin");
+		frozen.save(snapshot);
+		FrozenLexicographicTree mapped = FrozenLexicographicTree.map(snapshot);
+		byte[] text = "LE BUS AUJOURD'HUI A-COTE bu\u00e9s Aide ete".getBytes(StandardCharsets.ISO_8859_1);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(text.length).put(text);
+
+		for (int off = 0; off < text.length; off++) {
+			for (int len = 0; off + len <= text.length; len++) {
+				boolean expected = tree.getRoot().containsWord(text, off, len);
+				assertEquals(expected, frozen.containsWord(text, off, len), off + "+" + len);
+				assertEquals(expected, mapped.containsWord(buffer, off, len), off + "+" + len);
+			}
+		}
+		assertTrue(frozen.containsWord(text, 7, 11));
+		assertThrows(IndexOutOfBoundsException.class, () -> frozen.containsWord(text, text.length, 1));
+		assertEquals(text.length, buffer.position());
+	}
+
+	@Test
+	void refusesFileThatIsNotASnapshot(@TempDir Path directory) throws IOException {
+		Path notSnapshot = directory.resolve("dico.txt");
+		Files.writeString(notSnapshot, "aide\nas\nau\naux\nbu\nbus\nbut\ncote\n");
+		assertThrows(IOException.class, () -> FrozenLexicographicTree.map(notSnapshot));
+
+		Path truncated = directory.resolve("dico.bin");
+		frozen.save(truncated);
+		Files.write(truncated, Arrays.copyOf(Files.readAllBytes(truncated), 40));
+		assertThrows(IOException.class, () -> FrozenLexicographicTree.map(truncated));
+	}
+}
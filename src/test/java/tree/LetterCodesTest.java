@@ -0,0 +1,30 @@
+package tree;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LetterCodesTest {
+
+	@Test
+	void codesLettersOnFiveBits() {
+		assertEquals(0, LetterCodes.code('a'));
+		assertEquals(0, LetterCodes.code('A'));
+		assertEquals(25, LetterCodes.code('z'));
+		assertEquals(26, LetterCodes.code('-'));
+		assertEquals(27, LetterCodes.code('\''));
+		assertTrue(LetterCodes.CODE_COUNT <= 32);
+		for (int code = 0; code < LetterCodes.CODE_COUNT; code++) {
+			assertEquals(code, LetterCodes.code(LetterCodes.letter(code)));
+		}
+	}
+
+	@Test
+	void hasNoCodeForOtherCharacters() {
+		for (int character : new int[] { ' ', '\n', '0', '_', 'é', (byte) 0xE9, -1, 200 }) {
+			assertEquals(LetterCodes.NONE, LetterCodes.code(character));
+		}
+		assertThrows(IllegalArgumentException.class, () -> LetterCodes.letter(28));
+		assertThrows(IllegalArgumentException.class, () -> LetterCodes.letter(-1));
+	}
+}
@@ -4,14 +4,23 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.Scanner;
+import java.util.zip.GZIPOutputStream;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -802,4 +811,228 @@ public class LexicographicTreeTest {
 			// THEN
 			assertEquals(0, result.size());
 		}
-}
\ No newline at end of file
+
+		@Test
+		void mixesLettersAndOtherCharactersAtTheSameLevel() {
+			// GIVEN
+			LexicographicTree dict = new LexicographicTree();
+
+			dict.insertWord("a-z");
+			dict.insertWord("az");
+			dict.insertWord("a'z");
+			dict.insertWord("aé");
+			dict.insertWord("a~");
+			dict.insertWord("ab");
+
+			// EXPECT
+			assertEquals(6, dict.size());
+			for (String word : new String[] { "a-z", "az", "a'z", "aé", "a~", "ab" }) {
+				assertTrue(dict.containsWord(word), "Mot " + word + " non trouvé");
+			}
+			assertFalse(dict.containsWord("a-"));
+			assertFalse(dict.containsWord("a"));
+			assertFalse(dict.containsWord("ac"));
+			assertArrayEquals(new String[] { "a'z", "a-z", "ab", "az", "a~", "aé" }, dict.getWords("a").toArray());
+		}
+
+		@Test
+		void containsWordInSliceOfSequence() {
+			// GIVEN
+			StringBuilder buffer = new StringBuilder("xxsodaxx");
+
+			tree.insertWord("soda");
+			tree.insertWord("sodonium");
+
+			// EXPECT
+			assertTrue(tree.containsWord(buffer, 2, 6));
+			assertFalse(tree.containsWord(buffer, 2, 5));
+			assertFalse(tree.containsWord(buffer, 2, 2));
+			assertFalse(tree.containsWord(buffer, 1, 6));
+			assertThrows(IndexOutOfBoundsException.class, () -> tree.containsWord(buffer, 4, 20));
+		}
+
+		// LOAD TESTS
+		@Test
+		void loadsWordsFromStreamWithAnyLineBreak() throws IOException {
+			// GIVEN
+			byte[] text = "soda\r\nsodonium\rtest\n\n   \nsoda\ncoca".getBytes(StandardCharsets.UTF_8);
+
+			// WHEN
+			LoadReport report = tree.load(new ByteArrayInputStream(text));
+
+			// THEN
+			assertEquals(7, report.getLineCount());
+			assertEquals(4, report.getInsertedCount());
+			assertEquals(4, tree.size());
+			assertArrayEquals(new String[] { "coca", "soda", "sodonium", "test" }, tree.getWords("").toArray());
+		}
+
+		@Test
+		void loadsGzipCompressedStream() throws IOException {
+			// GIVEN
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+			try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+				output.write(Files.readAllBytes(Paths.get(FILENAME)));
+			}
+
+			// WHEN
+			LoadReport report = tree.load(new ByteArrayInputStream(compressed.toByteArray()));
+
+			// THEN
+			assertEquals(327956, report.getLineCount());
+			assertEquals(327956, tree.size());
+			assertTrue(tree.containsWord("aujourd'hui"));
+		}
+
+		// FROMSORTED TESTS
+		@Test
+		void buildsTreeFromSortedWords() throws IOException {
+			// GIVEN
+			List<String> words = Files.readAllLines(Paths.get(FILENAME));
+
+			// WHEN
+			LexicographicTree dict = LexicographicTree.fromSorted(words);
+
+			// THEN
+			assertEquals(327956, dict.size());
+			assertEquals(words, dict.getWords(""));
+			assertTrue(dict.containsWord("a-cote"));
+			assertFalse(dict.containsWord("a-cot"));
+			dict.insertWord("zzz");
+			dict.insertWord("a-cot");
+			assertEquals(327958, dict.size());
+			assertTrue(dict.containsWord("a-cot"));
+		}
+
+		@Test
+		void ignoresBlankAndRepeatedSortedWords() {
+			// WHEN
+			LexicographicTree dict = LexicographicTree.fromSorted(Arrays.asList("", "bu", "bu", "   ", "bus", "but"));
+
+			// THEN
+			assertEquals(3, dict.size());
+			assertArrayEquals(new String[] { "bu", "bus", "but" }, dict.getWords("").toArray());
+		}
+
+		@Test
+		void throwIfWordsAreNotSorted() {
+			// EXPECT
+			assertThrows(IllegalArgumentException.class, () -> LexicographicTree.fromSorted(Arrays.asList("bus", "bu")));
+			assertThrows(IllegalArgumentException.class, () -> LexicographicTree.fromSorted(Arrays.asList("bu", "au")));
+		}
+
+		// FROMWORDSINPARALLEL TESTS
+		@Test
+		void buildsSameTreeInParallel() throws IOException {
+			// GIVEN
+			List<String> words = new ArrayList<>(Files.readAllLines(Paths.get(FILENAME)));
+			Collections.shuffle(words, new Random(42));
+			LexicographicTree sequential = new LexicographicTree(FILENAME);
+
+			// WHEN
+			LexicographicTree dict = LexicographicTree.fromWordsInParallel(words);
+
+			// THEN
+			assertEquals(sequential.size(), dict.size());
+			assertEquals(sequential.getWords(""), dict.getWords(""));
+			assertEquals(sequential.getWordsOfLength(7), dict.getWordsOfLength(7));
+			assertTrue(dict.isPrefix("aujourd"));
+		}
+
+		@Test
+		void buildsInParallelWithOneLetterAndRepeatedWords() {
+			// WHEN
+			LexicographicTree dict = LexicographicTree
+					.fromWordsInParallel(Arrays.asList("bus", "a", "", "as", "b", "a", "au", "bus", "  ", "bu"));
+
+			// THEN
+			assertEquals(6, dict.size());
+			assertArrayEquals(new String[] { "a", "as", "au", "b", "bu", "bus" }, dict.getWords("").toArray());
+			assertTrue(dict.containsWord("a"));
+			assertFalse(dict.containsWord("s"));
+		}
+
+		@Test
+		void returnsNewListOfWordsOfLengthAfterInsertion() {
+			// GIVEN
+			tree.insertWord("java");
+			tree.insertWord("math");
+			assertEquals(Arrays.asList("java", "math"), tree.getWordsOfLength(4));
+
+			// WHEN
+			tree.insertWord("code");
+			tree.insertWord("javascript");
+
+			// THEN
+			assertEquals(Arrays.asList("code", "java", "math"), tree.getWordsOfLength(4));
+			assertEquals(Arrays.asList("javascript"), tree.getWordsOfLength(10));
+			tree.getWordsOfLength(4).add("test");
+			assertEquals(Arrays.asList("code", "java", "math"), tree.getWordsOfLength(4));
+			assertEquals(new ArrayList<>(), tree.getWordsOfLength(11));
+			assertEquals(new ArrayList<>(), tree.getWordsOfLength(0));
+		}
+
+		@Test
+		void containsWordOfAsciiBytes() {
+			// GIVEN
+			tree.insertWord("aujourd'hui");
+			tree.insertWord("a-cote");
+			tree.insertWord("bus");
+			byte[] text = "LE BUS AUJOURD'HUI A-COTE bu\u00e9s".getBytes(StandardCharsets.ISO_8859_1);
+
+			// THEN
+			assertTrue(tree.containsWord(text, 3, 3));
+			assertTrue(tree.containsWord(text, 7, 11));
+			assertTrue(tree.containsWord(text, 19, 6));
+			assertFalse(tree.containsWord(text, 3, 2));
+			assertFalse(tree.containsWord(text, 3, 0));
+			assertFalse(tree.containsWord(text, 26, 4));
+			assertThrows(IndexOutOfBoundsException.class, () -> tree.containsWord(text, 28, 5));
+
+			ByteBuffer buffer = ByteBuffer.allocateDirect(text.length).put(text);
+			assertTrue(tree.containsWord(buffer, 7, 11));
+			assertFalse(tree.containsWord(buffer, 26, 4));
+			assertEquals(text.length, buffer.position());
+		}
+
+		@Test
+		void walksWordsFromRoot() {
+			// GIVEN
+			tree.insertWord("mot");
+			tree.insertWord("mots");
+
+			// WHEN
+			Node node = tree.getRoot().getChild('m').getChild('o').getChild('t');
+
+			// THEN
+			assertTrue(node.isFinal());
+			assertEquals(1, node.childCount());
+			assertNull(tree.getRoot().getChild('x'));
+		}
+
+		@Test
+		void findsWordsOfLengthWhateverTheConstruction() throws IOException {
+			// GIVEN
+			List<String> words = Files.readAllLines(Paths.get(FILENAME));
+			LexicographicTree sorted = new LexicographicTree(FILENAME);
+			LexicographicTree parallel = LexicographicTree.fromWordsInParallel(words);
+			LexicographicTree inserted = new LexicographicTree();
+			for (String word : words.subList(0, 5000)) {
+				inserted.insertWord(word);
+			}
+			inserted.insertWord("zzzzzzzzzzzzzzzzzzzzzzzzzzzzzz");
+
+			// THEN
+			for (int length = 1; length <= 30; length++) {
+				List<String> expected = new ArrayList<>();
+				for (String word : sorted.getWords("")) {
+					if (word.length() == length)
+						expected.add(word);
+				}
+				assertEquals(expected, sorted.getWordsOfLength(length));
+				assertEquals(expected, parallel.getWordsOfLength(length));
+			}
+			assertEquals(Arrays.asList("zzzzzzzzzzzzzzzzzzzzzzzzzzzzzz"), inserted.getWordsOfLength(30));
+			assertEquals(30, inserted.getRoot().height());
+		}
+}